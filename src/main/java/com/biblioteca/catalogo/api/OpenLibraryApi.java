@@ -1,10 +1,14 @@
 package com.biblioteca.catalogo.api;
 
 import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.DadosLivroResponseDto;
 import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+import java.util.Map;
 
 public interface OpenLibraryApi {
 
@@ -13,4 +17,11 @@ public interface OpenLibraryApi {
 
     @GET("/author/{idAutor}.json")
     Call<AutorResponseDto> buscarAutor(@Path("idAutor") String idAutor);
+
+    /**
+     * @param bibkeys Chaves dos livros separadas por vírgula (ex.: ISBN:9788532530783,ISBN:8532511015)
+     * @return Dados de cada livro encontrado, pela chave informada. Livros não encontrados não são retornados
+     */
+    @GET("/api/books?jscmd=data&format=json")
+    Call<Map<String, DadosLivroResponseDto>> buscarLivros(@Query("bibkeys") String bibkeys);
 }
@@ -0,0 +1,136 @@
+package com.biblioteca.catalogo.api.interceptor;
+
+import com.biblioteca.catalogo.exception.CircuitoAbertoException;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Circuito que deixa de acessar o serviço enquanto ele estiver indisponível, falhando de imediato em vez de aguardar o
+ * tempo limite de cada requisição.
+ * <br>
+ * Após {@code falhasParaAbrir} falhas seguidas (erro de comunicação, 429 ou 5xx, já considerando as novas tentativas),
+ * o circuito abre por {@code tempoAbertoMs}. Enquanto aberto, as requisições são respondidas apenas com o cache, e as
+ * que não estiverem em cache falham com {@link CircuitoAbertoException}. Passado o tempo, uma única requisição de teste
+ * é enviada: se funcionar, o circuito fecha; se falhar, abre novamente.
+ * <br>
+ * Deve ser o primeiro interceptor registrado, para envolver as novas tentativas.
+ */
+@Slf4j
+public class CircuitoInterceptor implements Interceptor {
+
+    private final long falhasParaAbrir;
+    private final long tempoAbertoNanos;
+
+    private long falhasSeguidas;
+    private boolean aberto;
+    private long abertoAte;
+    private boolean testando;
+
+    /**
+     * @param falhasParaAbrir Falhas seguidas para abrir o circuito
+     * @param tempoAbertoMs   Tempo em que o circuito fica aberto antes de testar o serviço novamente
+     */
+    public CircuitoInterceptor(long falhasParaAbrir, long tempoAbertoMs) {
+        if (falhasParaAbrir <= 0) {
+            throw new IllegalArgumentException("A quantidade de falhas para abrir o circuito deve ser maior que zero");
+        }
+
+        this.falhasParaAbrir = falhasParaAbrir;
+        this.tempoAbertoNanos = TimeUnit.MILLISECONDS.toNanos(tempoAbertoMs);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!permitirRequisicao()) {
+            return responderComCache(chain);
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                liberarTeste();
+            } else {
+                registrarFalha();
+            }
+            throw e;
+        }
+
+        if (isNull(response.networkResponse())) {
+            // resposta do cache, não indica se o serviço está disponível
+            liberarTeste();
+        } else if (response.code() == 429 || response.code() >= 500) {
+            registrarFalha();
+        } else {
+            registrarSucesso();
+        }
+        return response;
+    }
+
+    public synchronized boolean isAberto() {
+        return aberto;
+    }
+
+    private Response responderComCache(Chain chain) throws IOException {
+        Request somenteCache = chain.request().newBuilder()
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build();
+
+        Response response = chain.proceed(somenteCache);
+        if (isNull(response.cacheResponse())) {
+            response.close();
+            throw new CircuitoAbertoException("A Open Library está indisponível. A consulta será feita novamente em alguns instantes");
+        }
+        return response;
+    }
+
+    /**
+     * @return true se a requisição pode ser enviada: circuito fechado, ou aberto há mais que o tempo definido e sem
+     * outra requisição de teste em andamento
+     */
+    private synchronized boolean permitirRequisicao() {
+        if (!aberto) {
+            return true;
+        }
+
+        if (testando || System.nanoTime() - abertoAte < 0) {
+            return false;
+        }
+
+        testando = true;
+        return true;
+    }
+
+    private synchronized void registrarFalha() {
+        falhasSeguidas++;
+        if (testando || (!aberto && falhasSeguidas >= falhasParaAbrir)) {
+            log.warn("Circuito da Open Library aberto após {} falhas seguidas. Consultas feitas apenas no cache por {} ms",
+                    falhasSeguidas, TimeUnit.NANOSECONDS.toMillis(tempoAbertoNanos));
+            aberto = true;
+            abertoAte = System.nanoTime() + tempoAbertoNanos;
+        }
+        testando = false;
+    }
+
+    private synchronized void registrarSucesso() {
+        if (aberto) {
+            log.info("Circuito da Open Library fechado: o serviço voltou a responder");
+        }
+        falhasSeguidas = 0;
+        aberto = false;
+        testando = false;
+    }
+
+    private synchronized void liberarTeste() {
+        testando = false;
+    }
+}
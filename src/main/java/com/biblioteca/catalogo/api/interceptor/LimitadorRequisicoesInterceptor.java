@@ -0,0 +1,70 @@
+package com.biblioteca.catalogo.api.interceptor;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita a quantidade de requisições enviadas por minuto (token bucket).
+ * <br>
+ * O balde guarda até {@code rajada} fichas e recebe uma nova ficha a cada 60/{@code requisicoesPorMinuto} segundos.
+ * Cada requisição consome uma ficha; sem fichas, a requisição aguarda a sua vez. As esperas são reservadas na ordem de
+ * chegada, então várias threads aguardando não são liberadas ao mesmo tempo.
+ * <br>
+ * Deve ser registrado como network interceptor, para que as respostas vindas do cache não consumam fichas.
+ */
+public class LimitadorRequisicoesInterceptor implements Interceptor {
+
+    private final double nanosPorFicha;
+    private final double capacidade;
+
+    private double fichas;
+    private long ultimaReposicao;
+
+    /**
+     * @param requisicoesPorMinuto Quantidade de requisições por minuto
+     * @param rajada               Quantidade máxima de requisições enviadas de uma vez
+     */
+    public LimitadorRequisicoesInterceptor(long requisicoesPorMinuto, long rajada) {
+        if (requisicoesPorMinuto <= 0 || rajada <= 0) {
+            throw new IllegalArgumentException("A quantidade de requisições e a rajada devem ser maiores que zero");
+        }
+
+        this.nanosPorFicha = (double) TimeUnit.MINUTES.toNanos(1) / requisicoesPorMinuto;
+        this.capacidade = rajada;
+        this.fichas = rajada;
+        this.ultimaReposicao = System.nanoTime();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long espera = reservarFicha();
+        if (espera > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido aguardando o limite de requisições");
+            }
+        }
+
+        return chain.proceed(chain.request());
+    }
+
+    /**
+     * Consome uma ficha, ficando com saldo negativo caso não haja fichas disponíveis
+     *
+     * @return Tempo em nanossegundos até a ficha consumida estar disponível, ou 0 caso já esteja
+     */
+    private synchronized long reservarFicha() {
+        long agora = System.nanoTime();
+        fichas = Math.min(capacidade, fichas + (agora - ultimaReposicao) / nanosPorFicha);
+        ultimaReposicao = agora;
+
+        fichas--;
+        return fichas >= 0 ? 0 : (long) (-fichas * nanosPorFicha);
+    }
+}
@@ -0,0 +1,107 @@
+package com.biblioteca.catalogo.api.interceptor;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Repete as requisições que receberem 429 (limite de requisições excedido) ou 5xx (erro temporário do servidor).
+ * <br>
+ * A espera dobra a cada tentativa, limitada ao máximo, e é sorteada entre metade e o valor total, para que várias
+ * requisições que falharam juntas não sejam repetidas ao mesmo tempo. Caso o servidor informe o cabeçalho Retry-After
+ * (em segundos), ele é usado no lugar, também limitado ao máximo.
+ * <br>
+ * Falhas de conexão e tempo limite não são repetidas: a consulta já esperou o tempo limite, e repeti-la apenas deixaria
+ * a tela aguardando por mais tempo.
+ */
+@Slf4j
+public class RetentativaInterceptor implements Interceptor {
+
+    private final long maximoRetentativas;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    /**
+     * @param maximoRetentativas Quantidade de novas tentativas após a primeira requisição
+     * @param esperaInicialMs    Espera antes da primeira nova tentativa
+     * @param esperaMaximaMs     Espera máxima entre tentativas
+     */
+    public RetentativaInterceptor(long maximoRetentativas, long esperaInicialMs, long esperaMaximaMs) {
+        this.maximoRetentativas = maximoRetentativas;
+        this.esperaInicialMs = Math.max(1, esperaInicialMs);
+        this.esperaMaximaMs = Math.max(this.esperaInicialMs, esperaMaximaMs);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+
+        for (int tentativa = 1; tentativa <= maximoRetentativas && deveRepetir(response); tentativa++) {
+            long espera = calcularEspera(response, tentativa);
+            log.warn("A Open Library retornou {} para {}. Nova tentativa em {} ms ({}/{})", response.code(),
+                    chain.request().url().encodedPath(), espera, tentativa, maximoRetentativas);
+
+            response.close();
+            aguardar(chain, espera);
+            response = chain.proceed(chain.request());
+        }
+
+        return response;
+    }
+
+    /**
+     * Apenas respostas vindas da rede são repetidas (uma resposta 504 pode ser gerada pelo cache quando a requisição
+     * só aceita respostas em cache)
+     */
+    private boolean deveRepetir(Response response) {
+        int codigo = response.code();
+        return nonNull(response.networkResponse()) && (codigo == 429 || (codigo >= 500 && codigo != 501));
+    }
+
+    private long calcularEspera(Response response, int tentativa) {
+        Long retryAfter = lerRetryAfter(response);
+        if (nonNull(retryAfter)) {
+            return Math.min(esperaMaximaMs, retryAfter);
+        }
+
+        long limite = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(tentativa - 1, 30));
+        return ThreadLocalRandom.current().nextLong(limite / 2, limite + 1);
+    }
+
+    /**
+     * @return Espera em ms informada no cabeçalho Retry-After, ou null caso não exista ou não seja em segundos
+     */
+    private Long lerRetryAfter(Response response) {
+        String valor = response.header("Retry-After");
+        if (isNull(valor)) {
+            return null;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(valor.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void aguardar(Chain chain, long esperaMs) throws IOException {
+        try {
+            Thread.sleep(esperaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando nova tentativa");
+        }
+
+        if (chain.call().isCanceled()) {
+            throw new IOException("Canceled");
+        }
+    }
+}
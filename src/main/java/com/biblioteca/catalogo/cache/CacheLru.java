@@ -0,0 +1,123 @@
+package com.biblioteca.catalogo.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Cache em memória com tamanho máximo. Ao atingir o limite, remove o item que está há mais tempo sem ser acessado (LRU).
+ * <br>
+ * Os métodos são sincronizados, então a mesma instância pode ser usada por várias threads. Também mantém a quantidade de
+ * acertos e falhas das buscas, para acompanhar a eficiência do cache.
+ *
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor
+ */
+public class CacheLru<K, V> {
+
+    private final int tamanhoMaximo;
+    private final Map<K, V> itens;
+
+    private long acertos;
+    private long falhas;
+
+    /**
+     * @param tamanhoMaximo Quantidade máxima de itens mantidos no cache
+     */
+    public CacheLru(int tamanhoMaximo) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("O tamanho máximo do cache deve ser maior que zero");
+        }
+
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.itens = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> maisAntigo) {
+                return size() > CacheLru.this.tamanhoMaximo;
+            }
+        };
+    }
+
+    /**
+     * Busca um item no cache, contabilizando um acerto ou uma falha
+     *
+     * @param chave Chave do item
+     * @return {@link Optional} com o valor, ou vazio caso não esteja no cache
+     */
+    public synchronized Optional<V> buscar(K chave) {
+        V valor = itens.get(chave);
+        if (isNull(valor)) {
+            falhas++;
+            return Optional.empty();
+        }
+
+        acertos++;
+        return Optional.of(valor);
+    }
+
+    /**
+     * Adiciona ou substitui um item no cache. Valores nulos são ignorados.
+     *
+     * @param chave Chave do item
+     * @param valor Valor do item
+     */
+    public synchronized void adicionar(K chave, V valor) {
+        if (isNull(chave) || isNull(valor)) {
+            return;
+        }
+
+        itens.put(chave, valor);
+    }
+
+    /**
+     * Remove um item do cache
+     *
+     * @param chave Chave do item
+     */
+    public synchronized void remover(K chave) {
+        itens.remove(chave);
+    }
+
+    /**
+     * Remove todos os itens cujo valor atende à condição
+     *
+     * @param condicao Condição dos valores a serem removidos
+     */
+    public synchronized void removerSe(Predicate<? super V> condicao) {
+        itens.values().removeIf(condicao);
+    }
+
+    /**
+     * Remove todos os itens do cache. Os contadores de acertos e falhas são mantidos.
+     */
+    public synchronized void limpar() {
+        itens.clear();
+    }
+
+    public synchronized int getTamanho() {
+        return itens.size();
+    }
+
+    public int getTamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * @return Percentual de buscas que encontraram o item no cache, entre 0 e 1
+     */
+    public synchronized double getTaxaAcertos() {
+        long total = acertos + falhas;
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+}
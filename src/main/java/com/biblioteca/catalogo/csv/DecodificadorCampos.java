@@ -0,0 +1,120 @@
+package com.biblioteca.catalogo.csv;
+
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
+
+/**
+ * Converte os campos do CSV direto de um trecho de {@link CharSequence}, sem criar Strings intermediárias e sem
+ * lançar exceções quando o valor é inválido. Os valores inválidos são indicados pelo retorno dos métodos.
+ */
+@NoArgsConstructor
+public final class DecodificadorCampos {
+
+    /**
+     * Retorno de {@link #decodificarIsbn(CharSequence, int, int, boolean)} quando o campo não é um número válido
+     */
+    public static final long ISBN_INVALIDO = -1;
+
+    /**
+     * Retorno de {@link #decodificarIsbn(CharSequence, int, int, boolean)} quando o dígito verificador não confere
+     */
+    public static final long ISBN_DIGITO_VERIFICADOR_INVALIDO = -2;
+
+    private static final int MAXIMO_DIGITOS_ISBN = 18;
+    private static final int TAMANHO_DATA = 10;
+
+    /**
+     * Converte o ISBN, ignorando espaços no início e no fim (mesmo critério de {@link String#trim()})
+     *
+     * @param texto                    Texto com o campo
+     * @param inicio                   Posição inicial do campo (inclusiva)
+     * @param fim                      Posição final do campo (exclusiva)
+     * @param validarDigitoVerificador Se true, exige um ISBN-10 ou ISBN-13 com dígito verificador válido
+     * @return O ISBN, {@link #ISBN_INVALIDO} caso o campo esteja vazio, possua algo além de dígitos ou tenha mais de
+     * 18 dígitos, ou {@link #ISBN_DIGITO_VERIFICADOR_INVALIDO} caso a validação do dígito verificador falhe
+     */
+    public static long decodificarIsbn(CharSequence texto, int inicio, int fim, boolean validarDigitoVerificador) {
+        while (inicio < fim && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && texto.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+
+        int quantidadeDigitos = fim - inicio;
+        if (quantidadeDigitos == 0 || quantidadeDigitos > MAXIMO_DIGITOS_ISBN) {
+            return ISBN_INVALIDO;
+        }
+
+        long valor = 0;
+        int somaIsbn10 = 0;
+        int somaIsbn13 = 0;
+        for (int i = 0; i < quantidadeDigitos; i++) {
+            int digito = texto.charAt(inicio + i) - '0';
+            if (digito < 0 || digito > 9) {
+                return ISBN_INVALIDO;
+            }
+
+            valor = valor * 10 + digito;
+            somaIsbn10 += digito * (10 - i);
+            somaIsbn13 += i % 2 == 0 ? digito : digito * 3;
+        }
+
+        if (!validarDigitoVerificador) {
+            return valor;
+        }
+
+        boolean valido = (quantidadeDigitos == 10 && somaIsbn10 % 11 == 0)
+                || (quantidadeDigitos == 13 && somaIsbn13 % 10 == 0);
+
+        return valido ? valor : ISBN_DIGITO_VERIFICADOR_INVALIDO;
+    }
+
+    /**
+     * Converte uma data no formato 'dd/MM/yyyy'.
+     * <br>
+     * Segue as mesmas regras do {@link java.time.format.DateTimeFormatter} usado até então na importação: o dia
+     * precisa estar entre 1 e 31 e, se passar do último dia do mês, é ajustado para o último dia (ex.: 31/04 vira 30/04).
+     *
+     * @param texto  Texto com o campo
+     * @param inicio Posição inicial do campo (inclusiva)
+     * @param fim    Posição final do campo (exclusiva)
+     * @return Um {@link LocalDate} com a data, ou null caso seja inválida
+     */
+    public static LocalDate decodificarData(CharSequence texto, int inicio, int fim) {
+        if (fim - inicio != TAMANHO_DATA
+                || texto.charAt(inicio + 2) != '/'
+                || texto.charAt(inicio + 5) != '/') {
+            return null;
+        }
+
+        int dia = converterDigitos(texto, inicio, inicio + 2);
+        int mes = converterDigitos(texto, inicio + 3, inicio + 5);
+        int ano = converterDigitos(texto, inicio + 6, inicio + 10);
+
+        if (dia < 1 || dia > 31 || mes < 1 || mes > 12 || ano < 1) {
+            return null;
+        }
+
+        int ultimoDiaMes = Month.of(mes).length(IsoChronology.INSTANCE.isLeapYear(ano));
+        return LocalDate.of(ano, mes, Math.min(dia, ultimoDiaMes));
+    }
+
+    /**
+     * @return O número formado pelos dígitos do trecho, ou -1 caso haja algo além de dígitos
+     */
+    private static int converterDigitos(CharSequence texto, int inicio, int fim) {
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
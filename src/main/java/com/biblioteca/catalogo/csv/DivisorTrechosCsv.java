@@ -0,0 +1,149 @@
+package com.biblioteca.catalogo.csv;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Divide um arquivo CSV em trechos que podem ser processados de forma independente.
+ * <br>
+ * O arquivo é primeiro dividido em partes de tamanho fixo. Em seguida, o início de cada parte é movido para o início
+ * do próximo registro, levando em conta se a posição está dentro de um campo entre aspas. Assim, campos com vírgulas ou
+ * quebras de linha nunca são divididos entre dois trechos.
+ * <br>
+ * Para saber se uma posição está dentro de aspas, basta saber se a quantidade de aspas antes dela é ímpar. Essa contagem
+ * é feita em paralelo para cada parte, direto da memória mapeada do arquivo, então o arquivo não precisa ser percorrido
+ * sequencialmente.
+ * <br>
+ * Os bytes procurados ('"' e '\n') são os mesmos em qualquer codificação compatível com ASCII (UTF-8, ISO-8859-1, etc).
+ */
+@NoArgsConstructor
+public final class DivisorTrechosCsv {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /**
+     * Divide o arquivo em trechos alinhados aos registros
+     *
+     * @param canal         Canal do arquivo CSV
+     * @param tamanhoTrecho Tamanho aproximado, em bytes, de cada trecho
+     * @param pool          Pool usado para analisar as partes do arquivo em paralelo
+     * @return Lista de {@link TrechoCsv}, em ordem, cobrindo todo o arquivo
+     * @throws IOException Caso ocorra algum erro na leitura do arquivo
+     */
+    public static List<TrechoCsv> dividir(FileChannel canal, long tamanhoTrecho, ForkJoinPool pool) throws IOException {
+        long tamanho = canal.size();
+        int quantidadePartes = (int) Math.max(1, (tamanho + tamanhoTrecho - 1) / tamanhoTrecho);
+        if (quantidadePartes == 1) {
+            return Collections.singletonList(new TrechoCsv(0, tamanho));
+        }
+
+        try {
+            List<ForkJoinTask<Long>> contagensAspas = new ArrayList<>(quantidadePartes);
+            for (int i = 0; i < quantidadePartes; i++) {
+                long inicio = i * tamanhoTrecho;
+                long fim = Math.min(tamanho, inicio + tamanhoTrecho);
+                contagensAspas.add(pool.submit(() -> contarAspas(canal, inicio, fim)));
+            }
+
+            List<ForkJoinTask<Long>> iniciosAlinhados = new ArrayList<>(quantidadePartes);
+            boolean dentroAspas = false;
+            for (int i = 0; i < quantidadePartes; i++) {
+                if (i > 0) {
+                    long inicioParte = i * tamanhoTrecho;
+                    boolean aspasAbertas = dentroAspas;
+                    iniciosAlinhados.add(pool.submit(() -> buscarInicioRegistro(canal, inicioParte, aspasAbertas)));
+                }
+
+                if (contagensAspas.get(i).join() % 2 == 1) {
+                    dentroAspas = !dentroAspas;
+                }
+            }
+
+            List<TrechoCsv> trechos = new ArrayList<>(quantidadePartes);
+            long inicio = 0;
+            for (ForkJoinTask<Long> inicioAlinhado : iniciosAlinhados) {
+                long fim = inicioAlinhado.join();
+                if (fim > inicio) {
+                    trechos.add(new TrechoCsv(inicio, fim));
+                    inicio = fim;
+                }
+            }
+
+            if (tamanho > inicio) {
+                trechos.add(new TrechoCsv(inicio, tamanho));
+            }
+
+            return trechos;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long contarAspas(FileChannel canal, long inicio, long fim) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long quantidade = 0;
+        int limite = buffer.limit();
+        for (int i = 0; i < limite; i++) {
+            if (buffer.get(i) == '"') {
+                quantidade++;
+            }
+        }
+
+        return quantidade;
+    }
+
+    /**
+     * Procura a posição logo após a primeira quebra de linha fora de aspas, a partir de uma posição
+     *
+     * @param canal        Canal do arquivo CSV
+     * @param posicao      Posição inicial da busca
+     * @param dentroAspas  Indica se a posição inicial está dentro de um campo entre aspas
+     * @return Posição do início do próximo registro, ou o tamanho do arquivo caso não haja outro registro
+     */
+    private static long buscarInicioRegistro(FileChannel canal, long posicao, boolean dentroAspas) {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+
+        while (true) {
+            ((Buffer) buffer).clear();
+            int lidos = ler(canal, buffer, posicao);
+            if (lidos < 0) {
+                return posicao;
+            }
+
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < lidos; i++) {
+                if (bytes[i] == '"') {
+                    dentroAspas = !dentroAspas;
+                } else if (bytes[i] == '\n' && !dentroAspas) {
+                    return posicao + i + 1;
+                }
+            }
+            posicao += lidos;
+        }
+    }
+
+    private static int ler(FileChannel canal, ByteBuffer buffer, long posicao) {
+        try {
+            return canal.read(buffer, posicao);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.biblioteca.catalogo.csv;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lê os registros de um trecho de arquivo CSV diretamente da memória mapeada do arquivo.
+ * <br>
+ * Os campos de cada registro são identificados apenas pelas suas posições no buffer. Uma {@link String} só é criada
+ * quando um campo é lido como texto, e campos numéricos e datas podem ser convertidos direto dos bytes (ver
+ * {@link #getSequenciaCampo(int)}).
+ * <br>
+ * A instância é reaproveitada a cada registro: as posições do registro anterior deixam de ser válidas ao chamar
+ * {@link #proximoRegistro()}. Não é thread-safe.
+ * <br>
+ * As regras de separação são as mesmas usadas até então na importação: campos separados por vírgula, aspas podem
+ * aparecer em qualquer parte do campo e são removidas, e aspas duplicadas dentro de aspas representam uma aspa literal.
+ * Quebras de linha dentro de aspas fazem parte do campo, mas são contadas na numeração das linhas (ver
+ * {@link #getLinhaRegistro()}).
+ */
+public class LeitorCsvMapeado {
+
+    private static final int CAPACIDADE_INICIAL_CAMPOS = 8;
+    private static final int CAPACIDADE_INICIAL_AUXILIAR = 256;
+
+    private final ByteBuffer buffer;
+    private final ByteBuffer leitura;
+    private final Charset charset;
+
+    private int posicao;
+    private int inicioRegistro;
+    private int fimRegistro;
+    private int linhaRegistro;
+    private int linhasLidas;
+
+    private int quantidadeCampos;
+    private int[] iniciosCampos = new int[CAPACIDADE_INICIAL_CAMPOS];
+    private int[] finsCampos = new int[CAPACIDADE_INICIAL_CAMPOS];
+    private boolean[] camposComAspas = new boolean[CAPACIDADE_INICIAL_CAMPOS];
+
+    private byte[] auxiliar = new byte[CAPACIDADE_INICIAL_AUXILIAR];
+    private final SequenciaCampo sequenciaCampo = new SequenciaCampo();
+
+    /**
+     * Mapeia um trecho do arquivo em memória para leitura
+     *
+     * @param canal   Canal do arquivo CSV
+     * @param trecho  Trecho do arquivo a ser lido
+     * @param charset Codificação do arquivo
+     * @throws IOException Caso não seja possível mapear o arquivo
+     */
+    public LeitorCsvMapeado(FileChannel canal, TrechoCsv trecho, Charset charset) throws IOException {
+        this(canal.map(FileChannel.MapMode.READ_ONLY, trecho.getInicio(), trecho.getTamanho()), charset);
+    }
+
+    /**
+     * Lê os registros de um buffer, da posição 0 até o seu limite
+     *
+     * @param buffer  Buffer com o conteúdo do CSV
+     * @param charset Codificação do conteúdo
+     */
+    public LeitorCsvMapeado(ByteBuffer buffer, Charset charset) {
+        this.buffer = buffer;
+        this.leitura = buffer.duplicate();
+        this.charset = charset;
+    }
+
+    /**
+     * Avança para o próximo registro, identificando a posição de cada um dos seus campos. São aceitas as quebras de
+     * linha '\n', '\r\n' e '\r'.
+     *
+     * @return true se um registro foi lido, false se não houver mais registros
+     */
+    public boolean proximoRegistro() {
+        int limite = buffer.limit();
+        if (posicao >= limite) {
+            return false;
+        }
+
+        inicioRegistro = posicao;
+        linhaRegistro = linhasLidas;
+        quantidadeCampos = 0;
+
+        int inicioCampo = posicao;
+        int fim = limite;
+        boolean dentroAspas = false;
+        boolean campoComAspas = false;
+
+        for (int i = posicao; i < limite; i++) {
+            byte b = buffer.get(i);
+
+            if (b == '"') {
+                campoComAspas = true;
+                if (dentroAspas && i + 1 < limite && buffer.get(i + 1) == '"') {
+                    i++;
+                } else {
+                    dentroAspas = !dentroAspas;
+                }
+                continue;
+            }
+
+            if (dentroAspas) {
+                if (b == '\n' || (b == '\r' && (i + 1 >= limite || buffer.get(i + 1) != '\n'))) {
+                    linhasLidas++;
+                }
+                continue;
+            }
+
+            if (b == ',') {
+                adicionarCampo(inicioCampo, i, campoComAspas);
+                inicioCampo = i + 1;
+                campoComAspas = false;
+            } else if (b == '\n' || b == '\r') {
+                fim = i;
+                break;
+            }
+        }
+
+        adicionarCampo(inicioCampo, fim, campoComAspas);
+        fimRegistro = fim;
+
+        posicao = fim + 1;
+        if (fim < limite) {
+            linhasLidas++;
+        }
+        if (fim < limite && buffer.get(fim) == '\r' && posicao < limite && buffer.get(posicao) == '\n') {
+            posicao++;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Linha em que o registro atual começa, contada a partir de 0 no início do buffer
+     */
+    public int getLinhaRegistro() {
+        return linhaRegistro;
+    }
+
+    /**
+     * @return Quantidade de quebras de linha lidas até o fim do registro atual, incluindo as que estão entre aspas
+     */
+    public int getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    /**
+     * @return Quantidade de campos do registro atual
+     */
+    public int getQuantidadeCampos() {
+        return quantidadeCampos;
+    }
+
+    /**
+     * Verifica se o registro atual possui apenas espaços em branco
+     *
+     * @return true se o registro estiver em branco
+     */
+    public boolean isRegistroVazio() {
+        for (int i = inicioRegistro; i < fimRegistro; i++) {
+            if (!isEspaco(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o texto do registro atual, exatamente como está no arquivo
+     *
+     * @return Uma {@link String} com o registro atual
+     */
+    public String getTextoRegistro() {
+        int tamanho = fimRegistro - inicioRegistro;
+        garantirAuxiliar(tamanho);
+        posicionarLeitura(inicioRegistro, fimRegistro);
+        leitura.get(auxiliar, 0, tamanho);
+        return new String(auxiliar, 0, tamanho, charset);
+    }
+
+    /**
+     * Retorna o texto de um campo, sem as aspas
+     *
+     * @param indice Índice do campo
+     * @return Uma {@link String} com o valor do campo
+     */
+    public String getCampo(int indice) {
+        int tamanho = copiarCampo(indice);
+        return new String(auxiliar, 0, tamanho, charset);
+    }
+
+    /**
+     * Retorna o texto de um campo, sem as aspas e sem espaços no início e no fim (mesmo critério de {@link String#trim()})
+     *
+     * @param indice Índice do campo
+     * @return Uma {@link String} com o valor do campo
+     */
+    public String getCampoAparado(int indice) {
+        int fim = copiarCampo(indice);
+        int inicio = 0;
+        while (inicio < fim && isEspaco(auxiliar[inicio])) {
+            inicio++;
+        }
+        while (fim > inicio && isEspaco(auxiliar[fim - 1])) {
+            fim--;
+        }
+        return new String(auxiliar, inicio, fim - inicio, charset);
+    }
+
+    /**
+     * Verifica se um campo está vazio ou possui apenas espaços em branco
+     *
+     * @param indice Índice do campo
+     * @return true se o campo estiver em branco
+     */
+    public boolean isCampoVazio(int indice) {
+        if (camposComAspas[indice]) {
+            int tamanho = copiarCampo(indice);
+            for (int i = 0; i < tamanho; i++) {
+                if (!isEspaco(auxiliar[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int i = iniciosCampos[indice]; i < finsCampos[indice]; i++) {
+            if (!isEspaco(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o conteúdo de um campo, sem as aspas, como um {@link CharSequence} que lê direto dos bytes, sem criar
+     * Strings. Usado com o {@link DecodificadorCampos} para converter campos numéricos e datas.
+     * <br>
+     * Cada byte é lido como um caracter, então apenas caracteres ASCII são representados corretamente. A mesma instância
+     * é reaproveitada e deixa de ser válida ao ler outro campo.
+     *
+     * @param indice Índice do campo
+     * @return Um {@link CharSequence} com o valor do campo
+     */
+    public CharSequence getSequenciaCampo(int indice) {
+        sequenciaCampo.tamanho = copiarCampo(indice);
+        return sequenciaCampo;
+    }
+
+    /**
+     * Copia o conteúdo de um campo para o array auxiliar, removendo as aspas
+     *
+     * @param indice Índice do campo
+     * @return Quantidade de bytes copiados
+     */
+    private int copiarCampo(int indice) {
+        int inicio = iniciosCampos[indice];
+        int fim = finsCampos[indice];
+        garantirAuxiliar(fim - inicio);
+
+        if (!camposComAspas[indice]) {
+            posicionarLeitura(inicio, fim);
+            leitura.get(auxiliar, 0, fim - inicio);
+            return fim - inicio;
+        }
+
+        int tamanho = 0;
+        boolean dentroAspas = false;
+        for (int i = inicio; i < fim; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                if (dentroAspas && i + 1 < fim && buffer.get(i + 1) == '"') {
+                    auxiliar[tamanho++] = b;
+                    i++;
+                } else {
+                    dentroAspas = !dentroAspas;
+                }
+                continue;
+            }
+            auxiliar[tamanho++] = b;
+        }
+        return tamanho;
+    }
+
+    /**
+     * O cast para {@link Buffer} evita usar os retornos covariantes de {@link ByteBuffer} do Java 9+, que não existem
+     * no Java 8
+     */
+    private void posicionarLeitura(int inicio, int fim) {
+        ((Buffer) leitura).limit(fim).position(inicio);
+    }
+
+    private void adicionarCampo(int inicio, int fim, boolean comAspas) {
+        if (quantidadeCampos == iniciosCampos.length) {
+            int capacidade = quantidadeCampos * 2;
+            iniciosCampos = Arrays.copyOf(iniciosCampos, capacidade);
+            finsCampos = Arrays.copyOf(finsCampos, capacidade);
+            camposComAspas = Arrays.copyOf(camposComAspas, capacidade);
+        }
+
+        iniciosCampos[quantidadeCampos] = inicio;
+        finsCampos[quantidadeCampos] = fim;
+        camposComAspas[quantidadeCampos] = comAspas;
+        quantidadeCampos++;
+    }
+
+    private void garantirAuxiliar(int tamanho) {
+        if (auxiliar.length < tamanho) {
+            auxiliar = new byte[Math.max(tamanho, auxiliar.length * 2)];
+        }
+    }
+
+    /**
+     * Mesmo critério de {@link String#trim()}: qualquer caracter até o espaço (0x20)
+     */
+    private static boolean isEspaco(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+
+    /**
+     * Visão dos bytes do campo copiado para o array auxiliar
+     */
+    private class SequenciaCampo implements CharSequence {
+        private int tamanho;
+
+        @Override
+        public int length() {
+            return tamanho;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (auxiliar[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(auxiliar, 0, tamanho, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
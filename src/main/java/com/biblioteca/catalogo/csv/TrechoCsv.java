@@ -0,0 +1,17 @@
+package com.biblioteca.catalogo.csv;
+
+import lombok.Value;
+
+/**
+ * Intervalo de bytes de um arquivo CSV, começando no início de um registro e terminando logo após o fim de outro.
+ */
+@Value
+public class TrechoCsv {
+
+    long inicio;
+    long fim;
+
+    public long getTamanho() {
+        return fim - inicio;
+    }
+}
@@ -1,6 +1,10 @@
 package com.biblioteca.catalogo.database.config;
 
+import com.biblioteca.catalogo.dto.MetricasCacheDto;
+import com.biblioteca.catalogo.dto.MetricasPoolDto;
 import com.biblioteca.catalogo.enums.TipoConexaoBanco;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import liquibase.Contexts;
 import liquibase.LabelExpression;
 import liquibase.Liquibase;
@@ -11,26 +15,45 @@ import liquibase.resource.ClassLoaderResourceAccessor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.function.LongPredicate;
 
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Slf4j
 @NoArgsConstructor
 public class DatabaseManager {
 
+    private static final int TAMANHO_MAXIMO_POOL_PADRAO = 10;
+    private static final int MINIMO_OCIOSO_POOL_PADRAO = 2;
+    private static final long TIMEOUT_CONEXAO_PADRAO = 30_000;
+    private static final long TIMEOUT_OCIOSO_PADRAO = 600_000;
+    private static final long TEMPO_MAXIMO_VIDA_PADRAO = 1_800_000;
+    private static final long TIMEOUT_CONEXAO_MINIMO = 250;
+    private static final long TEMPO_MAXIMO_VIDA_MINIMO = 30_000;
+
     private static DatabaseManager instance;
     private static boolean bancoInicializado;
 
     private Properties dbProperties;
+    @Getter
     private TipoConexaoBanco tipoBanco;
+    private HikariDataSource dataSource;
+    private final MetricasPoolConexoes metricasPool = new MetricasPoolConexoes();
+    private MetricasCache metricasCache;
 
     @Getter
     private EntityManagerFactory entityManagerFactory;
@@ -48,11 +71,12 @@ public class DatabaseManager {
             return;
         }
 
-        this.tipoBanco = getTipoBanco();
+        this.tipoBanco = lerTipoBanco();
 
         try {
             log.info("Inicializando banco: {}", tipoBanco.name());
             carregarProperties();
+            criarPoolConexoes();
             executarLiquibase();
             iniciarHibernate();
             log.info("Inicialização concluída com sucesso para: {}", tipoBanco.name());
@@ -67,6 +91,25 @@ public class DatabaseManager {
         return entityManagerFactory.createEntityManager();
     }
 
+    /**
+     * Retorna a situação atual do pool de conexões (conexões ativas, ociosas, threads aguardando e tempo para obter uma
+     * conexão). As mesmas informações também são publicadas via JMX.
+     *
+     * @return Um {@link MetricasPoolDto} com as métricas do pool
+     */
+    public MetricasPoolDto getMetricasPool() {
+        return metricasPool.getMetricas();
+    }
+
+    /**
+     * Retorna os acertos, falhas e a taxa de acerto de cada região do cache de segundo nível do Hibernate.
+     *
+     * @return Lista com um {@link MetricasCacheDto} por região, vazia caso o cache esteja desabilitado
+     */
+    public List<MetricasCacheDto> getMetricasCache() {
+        return metricasCache.getMetricas();
+    }
+
     private void carregarProperties() throws Exception {
         dbProperties = new Properties();
         String arquivoProperties = tipoBanco.getPathLiquibaseProperties();
@@ -80,35 +123,115 @@ public class DatabaseManager {
         }
     }
 
-    private void executarLiquibase() throws Exception {
+    /**
+     * Cria o pool de conexões usado pelo Liquibase e pelo Hibernate, com os dados de conexão do arquivo de properties
+     * do banco. O tamanho e os tempos limite podem ser alterados pelos parâmetros da JVM:
+     * <br>- database.pool.tamanhoMaximo: quantidade máxima de conexões (padrão: {@value #TAMANHO_MAXIMO_POOL_PADRAO})
+     * <br>- database.pool.minimoOcioso: quantidade mínima de conexões ociosas (padrão: {@value #MINIMO_OCIOSO_POOL_PADRAO})
+     * <br>- database.pool.timeoutConexao: tempo máximo, em ms, aguardando uma conexão (padrão: {@value #TIMEOUT_CONEXAO_PADRAO})
+     * <br>- database.pool.timeoutOcioso: tempo, em ms, até fechar uma conexão ociosa (padrão: {@value #TIMEOUT_OCIOSO_PADRAO})
+     * <br>- database.pool.tempoMaximoVida: tempo máximo, em ms, de vida de uma conexão (padrão: {@value #TEMPO_MAXIMO_VIDA_PADRAO})
+     */
+    private void criarPoolConexoes() {
         String url = dbProperties.getProperty("url");
-        String username = dbProperties.getProperty("username");
-        String password = dbProperties.getProperty("password");
+        log.debug("Criando pool de conexões para: {}", url);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("biblioteca-" + tipoBanco.name().toLowerCase());
+        config.setJdbcUrl(url);
+        config.setUsername(dbProperties.getProperty("username"));
+        config.setPassword(dbProperties.getProperty("password"));
+        config.setMaximumPoolSize((int) getParametroPool("tamanhoMaximo", TAMANHO_MAXIMO_POOL_PADRAO,
+                numero -> numero > 0 && numero <= Integer.MAX_VALUE));
+        config.setMinimumIdle((int) getParametroPool("minimoOcioso", MINIMO_OCIOSO_POOL_PADRAO,
+                numero -> numero >= 0 && numero <= Integer.MAX_VALUE));
+        config.setConnectionTimeout(getParametroPool("timeoutConexao", TIMEOUT_CONEXAO_PADRAO,
+                numero -> numero == 0 || numero >= TIMEOUT_CONEXAO_MINIMO));
+        config.setIdleTimeout(getParametroPool("timeoutOcioso", TIMEOUT_OCIOSO_PADRAO,
+                numero -> numero >= 0));
+        config.setMaxLifetime(getParametroPool("tempoMaximoVida", TEMPO_MAXIMO_VIDA_PADRAO,
+                numero -> numero == 0 || numero >= TEMPO_MAXIMO_VIDA_MINIMO));
+        config.setMetricsTrackerFactory(metricasPool);
+        config.setRegisterMbeans(true);
+
+        dataSource = new HikariDataSource(config);
+    }
 
-        log.debug("Conectando no banco: {}", url);
+    /**
+     * Lê um parâmetro database.pool.* da JVM. Se não achar, ou se o valor não for aceito pelo Hikari, usa o valor padrão
+     *
+     * @param nome   Nome do parâmetro, sem o prefixo database.pool.
+     * @param padrao Valor usado quando o parâmetro não é informado ou é inválido
+     * @param valido Condição para o valor ser aceito pelo Hikari
+     */
+    private long getParametroPool(String nome, long padrao, LongPredicate valido) {
+        String valor = System.getProperty("database.pool." + nome);
+        if (isBlank(valor)) {
+            return padrao;
+        }
 
-        Connection conn = DriverManager.getConnection(url, username, password);
+        try {
+            long numero = Long.parseLong(valor.trim());
+            if (valido.test(numero)) {
+                return numero;
+            }
+        } catch (NumberFormatException e) {
+            // tratado abaixo, junto com os valores fora da faixa aceita
+        }
 
-        Database database = DatabaseFactory.getInstance()
-                .findCorrectDatabaseImplementation(new JdbcConnection(conn));
+        log.warn("Valor inválido para database.pool.{}: '{}'. Será usado o padrão: {}", nome, valor, padrao);
+        return padrao;
+    }
 
-        String defaultSchema = dbProperties.getProperty("defaultSchemaName");
-        if (isNotBlank(defaultSchema)) {
-            database.setDefaultSchemaName(defaultSchema);
-        }
+    private void executarLiquibase() throws Exception {
+        try (Connection conn = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(conn));
+
+            String defaultSchema = dbProperties.getProperty("defaultSchemaName");
+            if (isNotBlank(defaultSchema)) {
+                database.setDefaultSchemaName(defaultSchema);
+            }
 
-        Liquibase liquibase = new Liquibase(
-                dbProperties.getProperty("changeLogFile"),
-                new ClassLoaderResourceAccessor(),
-                database
-        );
+            Liquibase liquibase = new Liquibase(
+                    dbProperties.getProperty("changeLogFile"),
+                    new ClassLoaderResourceAccessor(),
+                    database
+            );
 
-        liquibase.update(new Contexts(), new LabelExpression());
-        conn.close();
+            liquibase.update(new Contexts(), new LabelExpression());
+        }
     }
 
     private void iniciarHibernate() {
-        entityManagerFactory = Persistence.createEntityManagerFactory(tipoBanco.getUnidadePersistencia());
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put("javax.persistence.nonJtaDataSource", dataSource);
+        lerCacheHabilitado().ifPresent(habilitado -> {
+            propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, habilitado.toString());
+            propriedades.put(AvailableSettings.USE_QUERY_CACHE, habilitado.toString());
+        });
+        entityManagerFactory = Persistence.createEntityManagerFactory(tipoBanco.getUnidadePersistencia(), propriedades);
+
+        metricasCache = new MetricasCache(entityManagerFactory.unwrap(SessionFactory.class));
+        log.info("Cache de segundo nível {}", metricasCache.isCacheHabilitado() ? "habilitado" : "desabilitado");
+    }
+
+    /**
+     * Lê o parâmetro database.cache da JVM, que habilita (true) ou desabilita (false) o cache de segundo nível e o cache
+     * de consultas. Se não achar, ou se for inválido, vale o configurado na unidade de persistência do tipo de banco
+     */
+    private Optional<Boolean> lerCacheHabilitado() {
+        String valor = System.getProperty("database.cache");
+        if (isBlank(valor)) {
+            return Optional.empty();
+        }
+
+        if ("true".equalsIgnoreCase(valor.trim()) || "false".equalsIgnoreCase(valor.trim())) {
+            return Optional.of(Boolean.valueOf(valor.trim()));
+        }
+
+        log.warn("Valor inválido para database.cache: '{}'. Será usado o configurado para o banco {}", valor, tipoBanco.name());
+        return Optional.empty();
     }
 
     /**
@@ -116,7 +239,7 @@ public class DatabaseManager {
      *
      * @return {@link TipoConexaoBanco} tipo de conexão com o banco
      */
-    private TipoConexaoBanco getTipoBanco() {
+    private TipoConexaoBanco lerTipoBanco() {
         String tipoDb = System.getProperty("database.type");
 
         if ("postgres".equals(tipoDb)) {
@@ -0,0 +1,80 @@
+package com.biblioteca.catalogo.database.config;
+
+import com.biblioteca.catalogo.dto.MetricasCacheDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Coleta as métricas do cache de segundo nível do Hibernate, por região: acertos, falhas, inserções e a taxa de acerto.
+ * <br>
+ * As estatísticas do Hibernate são habilitadas apenas quando o cache está habilitado.
+ */
+public class MetricasCache {
+
+    private static final String REGIAO_CONSULTAS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    private final SessionFactory sessionFactory;
+
+    public MetricasCache(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+        if (isCacheHabilitado()) {
+            sessionFactory.getStatistics().setStatisticsEnabled(true);
+        }
+    }
+
+    public boolean isCacheHabilitado() {
+        return sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+
+    /**
+     * @return Lista com um {@link MetricasCacheDto} por região do cache, ordenada pelo nome da região. Vazia caso o
+     * cache esteja desabilitado
+     */
+    public List<MetricasCacheDto> getMetricas() {
+        if (!isCacheHabilitado()) {
+            return Collections.emptyList();
+        }
+
+        Statistics estatisticas = sessionFactory.getStatistics();
+        Stream<MetricasCacheDto> regioesEntidades = Arrays.stream(estatisticas.getSecondLevelCacheRegionNames())
+                .map(regiao -> criarMetricas(regiao, estatisticas.getCacheRegionStatistics(regiao)));
+
+        // a região dos resultados de consultas não faz parte das regiões listadas acima
+        Stream<MetricasCacheDto> regiaoConsultas = sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()
+                ? Stream.of(criarMetricas(REGIAO_CONSULTAS, estatisticas.getQueryRegionStatistics(REGIAO_CONSULTAS)))
+                : Stream.empty();
+
+        return Stream.concat(regioesEntidades, regiaoConsultas)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(MetricasCacheDto::getRegiao))
+                .collect(Collectors.toList());
+    }
+
+    private MetricasCacheDto criarMetricas(String regiao, CacheRegionStatistics estatisticas) {
+        if (isNull(estatisticas)) {
+            return null;
+        }
+
+        long acertos = estatisticas.getHitCount();
+        long falhas = estatisticas.getMissCount();
+        return MetricasCacheDto.builder()
+                .regiao(regiao)
+                .acertos(acertos)
+                .falhas(falhas)
+                .insercoes(estatisticas.getPutCount())
+                .taxaAcerto(acertos + falhas == 0 ? 0 : (double) acertos / (acertos + falhas))
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.biblioteca.catalogo.database.config;
+
+import com.biblioteca.catalogo.dto.MetricasPoolDto;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Coleta as métricas do pool de conexões: quantidade de conexões ativas, ociosas e threads aguardando uma conexão, além
+ * do tempo para obter uma conexão do pool.
+ */
+public class MetricasPoolConexoes implements MetricsTrackerFactory {
+
+    private final LongAdder quantidadeAquisicoes = new LongAdder();
+    private final LongAdder tempoTotalAquisicaoNanos = new LongAdder();
+    private final AtomicLong tempoMaximoAquisicaoNanos = new AtomicLong();
+    private final LongAdder quantidadeTimeouts = new LongAdder();
+
+    private volatile PoolStats estatisticasPool;
+
+    @Override
+    public IMetricsTracker create(String nomePool, PoolStats estatisticasPool) {
+        this.estatisticasPool = estatisticasPool;
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long tempoNanos) {
+                quantidadeAquisicoes.increment();
+                tempoTotalAquisicaoNanos.add(tempoNanos);
+                tempoMaximoAquisicaoNanos.accumulateAndGet(tempoNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                quantidadeTimeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * @return Um {@link MetricasPoolDto} com a situação atual do pool
+     */
+    public MetricasPoolDto getMetricas() {
+        long aquisicoes = quantidadeAquisicoes.sum();
+        MetricasPoolDto.MetricasPoolDtoBuilder metricas = MetricasPoolDto.builder()
+                .quantidadeAquisicoes(aquisicoes)
+                .tempoMedioAquisicaoMillis(aquisicoes == 0 ? 0 : tempoTotalAquisicaoNanos.sum() / (aquisicoes * 1_000_000.0))
+                .tempoMaximoAquisicaoMillis(tempoMaximoAquisicaoNanos.get() / 1_000_000.0)
+                .quantidadeTimeouts(quantidadeTimeouts.sum());
+
+        PoolStats estatisticas = estatisticasPool;
+        if (isNull(estatisticas)) {
+            return metricas.build();
+        }
+
+        return metricas
+                .conexoesAtivas(estatisticas.getActiveConnections())
+                .conexoesOciosas(estatisticas.getIdleConnections())
+                .conexoesTotais(estatisticas.getTotalConnections())
+                .threadsAguardando(estatisticas.getPendingThreads())
+                .build();
+    }
+}
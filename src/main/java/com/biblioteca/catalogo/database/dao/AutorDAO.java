@@ -11,13 +11,13 @@ public class AutorDAO extends GenericDAO<Autor, Long> {
     }
 
     /**
-     * Busca um autor por nome.
+     * Busca um autor por nome, sem diferenciar maiúsculas e minúsculas.
      *
      * @param nome do autor a ser buscado
      * @return {@link Optional<Autor>} encontrado
      */
     public Optional<Autor> buscarPorNome(String nome) {
-        String jpql = "SELECT a FROM Autor a WHERE a.nome = ?1";
-        return executeSingleQuery(jpql, nome);
+        String jpql = "SELECT a FROM Autor a WHERE a.nomeNormalizado = UPPER(?1)";
+        return executeCacheableSingleQuery(jpql, nome);
     }
 }
@@ -0,0 +1,71 @@
+package com.biblioteca.catalogo.database.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permite cancelar, a partir de outra thread, uma consulta que está sendo executada no banco.
+ * <br>
+ * Os DAOs registram a sessão usada pela consulta (ver {@link GenericDAO#executarCancelavel}). Ao chamar
+ * {@link #cancelar()}, o comando em execução é interrompido no banco com {@link Session#cancelQuery()} (que usa
+ * {@code Statement.cancel} do JDBC), e as próximas consultas da mesma operação não são iniciadas.
+ * <br>
+ * Cada instância representa uma única operação: depois de cancelada, não pode ser reaproveitada.
+ */
+@Slf4j
+public class CancelamentoConsulta {
+
+    private final Set<Session> sessoes = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelado;
+
+    /**
+     * Cancela a consulta em execução e impede que novas consultas sejam iniciadas
+     */
+    public void cancelar() {
+        cancelado = true;
+        sessoes.forEach(this::cancelarConsulta);
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /**
+     * Lança {@link CancellationException} caso a operação tenha sido cancelada. Usado entre as consultas de uma
+     * operação, para não iniciar a próxima.
+     */
+    public void verificar() {
+        if (cancelado) {
+            throw new CancellationException("Consulta cancelada");
+        }
+    }
+
+    void registrar(EntityManager em) {
+        Session sessao = em.unwrap(Session.class);
+        sessoes.add(sessao);
+
+        // cancelado enquanto a sessão era registrada
+        if (cancelado) {
+            sessoes.remove(sessao);
+            verificar();
+        }
+    }
+
+    void remover(EntityManager em) {
+        sessoes.remove(em.unwrap(Session.class));
+    }
+
+    private void cancelarConsulta(Session sessao) {
+        try {
+            sessao.cancelQuery();
+        } catch (RuntimeException e) {
+            // a sessão pode ter sido fechada enquanto era cancelada
+            log.debug("Não foi possível cancelar a consulta: {}", e.getMessage());
+        }
+    }
+}
@@ -11,13 +11,13 @@ public class EditoraDAO extends GenericDAO<Editora, Long> {
     }
 
     /**
-     * Busca uma editora por nome.
+     * Busca uma editora por nome, sem diferenciar maiúsculas e minúsculas.
      *
      * @param nome da editora a ser buscada
      * @return Um {@link Optional<Editora>}
      */
     public Optional<Editora> buscarPorNome(String nome) {
-        String jpql = "SELECT e FROM Editora e WHERE e.nome = ?1";
-        return executeSingleQuery(jpql, nome);
+        String jpql = "SELECT e FROM Editora e WHERE e.nomeNormalizado = UPPER(?1)";
+        return executeCacheableSingleQuery(jpql, nome);
     }
 }
@@ -1,6 +1,7 @@
 package com.biblioteca.catalogo.database.dao;
 
 import com.biblioteca.catalogo.database.config.DatabaseManager;
+import org.hibernate.annotations.QueryHints;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
@@ -11,6 +12,8 @@ import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
 
 public abstract class GenericDAO<T, ID> {
 
@@ -42,6 +45,75 @@ public abstract class GenericDAO<T, ID> {
         }
     }
 
+    /**
+     * Executa uma operação usando um único EntityManager e uma única transação.
+     * <br>
+     * Usado por operações em lote, onde abrir uma transação por registro seria custoso.
+     *
+     * @param operacao Operação a ser executada com o EntityManager da transação
+     * @return O retorno da operação
+     */
+    protected <R> R executarEmTransacao(Function<EntityManager, R> operacao) {
+        EntityManager em = databaseManager.getEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+
+        try {
+            transaction.begin();
+            R resultado = operacao.apply(em);
+            transaction.commit();
+            return resultado;
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Erro ao executar operação em lote", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Executa uma operação de leitura usando um único EntityManager e uma única transação, permitindo que seja
+     * cancelada por outra thread através do {@link CancelamentoConsulta}.
+     *
+     * @param cancelamento Controle de cancelamento da operação
+     * @param operacao     Operação a ser executada com o EntityManager da transação
+     * @return O retorno da operação
+     * @throws CancellationException Caso a operação tenha sido cancelada
+     */
+    protected <R> R executarCancelavel(CancelamentoConsulta cancelamento, Function<EntityManager, R> operacao) {
+        cancelamento.verificar();
+
+        EntityManager em = databaseManager.getEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+
+        try {
+            cancelamento.registrar(em);
+            transaction.begin();
+            R resultado = operacao.apply(em);
+            transaction.commit();
+            return resultado;
+        } catch (RuntimeException e) {
+            try {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+            } catch (RuntimeException erroRollback) {
+                // após o cancelamento, a conexão pode não aceitar o rollback
+                e.addSuppressed(erroRollback);
+            }
+
+            // o cancelamento interrompe o comando no banco, que termina com erro
+            if (cancelamento.isCancelado()) {
+                throw (CancellationException) new CancellationException("Consulta cancelada").initCause(e);
+            }
+            throw e;
+        } finally {
+            cancelamento.remover(em);
+            em.close();
+        }
+    }
+
     protected Optional<T> findById(ID id, String... joins) {
         EntityManager em = databaseManager.getEntityManager();
         try {
@@ -115,16 +187,7 @@ public abstract class GenericDAO<T, ID> {
     }
 
     protected List<T> executeQuery(String jpql, Object... parameters) {
-        EntityManager em = databaseManager.getEntityManager();
-        try {
-            TypedQuery<T> query = em.createQuery(jpql, entityClass);
-            for (int i = 0; i < parameters.length; i++) {
-                query.setParameter(i + 1, parameters[i]);
-            }
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return executeQueryForType(false, entityClass, jpql, parameters);
     }
 
     protected Optional<T> executeSingleQuery(String jpql, Object... parameters) {
@@ -132,21 +195,47 @@ public abstract class GenericDAO<T, ID> {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    /**
+     * Igual a {@link #executeSingleQuery(String, Object...)}, mas guardando o resultado no cache de consultas do
+     * Hibernate, quando habilitado. O resultado em cache é descartado sempre que uma das tabelas da consulta é alterada.
+     */
+    protected Optional<T> executeCacheableSingleQuery(String jpql, Object... parameters) {
+        List<T> results = executeQueryForType(true, entityClass, jpql, parameters);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
     protected <R> List<R> executeQueryForType(Class<R> type, String jpql, Object... parameters) {
+        return executeQueryForType(false, type, jpql, parameters);
+    }
+
+    protected <R> Optional<R> executeSingleQueryForType(Class<R> type, String jpql, Object... parameters) {
+        List<R> results = executeQueryForType(type, jpql, parameters);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /**
+     * Igual a {@link #executeSingleQueryForType(Class, String, Object...)}, mas guardando o resultado no cache de
+     * consultas do Hibernate, quando habilitado. O resultado em cache é descartado sempre que uma das tabelas da
+     * consulta é alterada.
+     */
+    protected <R> Optional<R> executeCacheableSingleQueryForType(Class<R> type, String jpql, Object... parameters) {
+        List<R> results = executeQueryForType(true, type, jpql, parameters);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    private <R> List<R> executeQueryForType(boolean cacheable, Class<R> type, String jpql, Object... parameters) {
         EntityManager em = databaseManager.getEntityManager();
         try {
             TypedQuery<R> query = em.createQuery(jpql, type);
             for (int i = 0; i < parameters.length; i++) {
                 query.setParameter(i + 1, parameters[i]);
             }
+            if (cacheable) {
+                query.setHint(QueryHints.CACHEABLE, true);
+            }
             return query.getResultList();
         } finally {
             em.close();
         }
     }
-
-    protected <R> Optional<R> executeSingleQueryForType(Class<R> type, String jpql, Object... parameters) {
-        List<R> results = executeQueryForType(type, jpql, parameters);
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
-    }
 }
@@ -1,16 +1,43 @@
 package com.biblioteca.catalogo.database.dao;
 
+import com.biblioteca.catalogo.dto.AutorDto;
+import com.biblioteca.catalogo.dto.EditoraDto;
+import com.biblioteca.catalogo.dto.LivroDto;
 import com.biblioteca.catalogo.entity.Autor;
 import com.biblioteca.catalogo.entity.Editora;
 import com.biblioteca.catalogo.entity.Livro;
+import com.biblioteca.catalogo.enums.TipoConexaoBanco;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.query.NativeQuery;
 
 import javax.persistence.EntityManager;
-import javax.persistence.criteria.*;
-import java.util.List;
-import java.util.Optional;
+import javax.persistence.PersistenceException;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Slf4j
 public class LivroDAO extends GenericDAO<Livro, Long> {
 
+    private static final String PROPRIEDADE_TAMANHO_BATCH = "hibernate.jdbc.batch_size";
+    private static final int TAMANHO_BATCH_PADRAO = 50;
+    private static final int TAMANHO_MAXIMO_IN = 500;
+    private static final int TAMANHO_MAXIMO_BUSCA_TEXTUAL = 1000;
+    private static final int TAMANHO_LEITURA_TEXTOS_BUSCA = 1000;
+    private static final int TAMANHO_LEITURA_ISBNS = 5000;
+    private static final int TAMANHO_BLOCO_BUSCA_TEXTUAL = 100;
+    private static final int TEMPO_MAXIMO_BUSCA_TEXTUAL_MS = 30_000;
+
     public LivroDAO() {
         super(Livro.class);
     }
@@ -23,11 +50,96 @@ public class LivroDAO extends GenericDAO<Livro, Long> {
      */
     public Optional<Long> buscarIdExistentePorISBN(Long isbn) {
         String jpql = "SELECT l.livroId FROM Livro l WHERE l.isbn = ?1";
-        return executeSingleQueryForType(Long.class, jpql, isbn);
+        return executeCacheableSingleQueryForType(Long.class, jpql, isbn);
     }
 
-    public List<Livro> buscarTodos() {
-        return super.findAll("autores");
+    /**
+     * Salva um lote de livros usando uma única transação.
+     * <br>
+     * Os nomes distintos de editoras e autores do lote são resolvidos de uma vez: uma consulta {@code IN} por tipo busca
+     * os já cadastrados, e os que faltam são inseridos com um único INSERT de várias linhas (ver
+     * {@link #resolverIdsPorNome(EntityManager, Class, String, String, Set)}). Os livros que já possuem cadastro com o mesmo ISBN
+     * são atualizados.
+     * <br>
+     * O contexto é descarregado e limpo a cada N registros (N = hibernate.jdbc.batch_size), permitindo que o Hibernate
+     * agrupe os comandos em batches JDBC sem acumular entidades em memória.
+     * <br>
+     * Se outra transação cadastrar o mesmo nome ou ISBN ao mesmo tempo e o banco recusar o registro por violar uma
+     * restrição, o lote é executado mais uma vez, agora encontrando os registros já cadastrados. Os livros recebidos não
+     * são alterados, então podem ser salvos novamente.
+     *
+     * @param livros Livros a serem salvos
+     * @return Lista com os IDs dos livros salvos, na mesma ordem recebida
+     */
+    public List<Long> salvarLote(List<Livro> livros) {
+        try {
+            return executarEmTransacao(em -> salvarLote(em, livros));
+        } catch (RuntimeException e) {
+            if (!isViolacaoRestricao(e)) {
+                throw e;
+            }
+            return executarEmTransacao(em -> salvarLote(em, livros));
+        }
+    }
+
+    private List<Long> salvarLote(EntityManager em, List<Livro> livros) {
+        int tamanhoBatch = getTamanhoBatch(em);
+        Map<Long, Long> idsPorIsbn = buscarIdsPorIsbn(em, livros);
+
+        Set<String> nomesEditoras = livros.stream()
+                .map(Livro::getEditora)
+                .filter(Objects::nonNull)
+                .map(Editora::getNome)
+                .collect(Collectors.toSet());
+        Set<String> nomesAutores = livros.stream()
+                .flatMap(livro -> livro.getAutores().stream())
+                .map(Autor::getNome)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> idsEditoras = resolverIdsPorNome(em, Editora.class, "editoraId", "editoras", nomesEditoras);
+        Map<String, Long> idsAutores = resolverIdsPorNome(em, Autor.class, "autorId", "autores", nomesAutores);
+
+        List<Long> ids = new ArrayList<>(livros.size());
+        for (Livro livro : livros) {
+            Long livroId = livro.getLivroId();
+            if (isNull(livroId) && nonNull(livro.getIsbn())) {
+                livroId = idsPorIsbn.get(livro.getIsbn());
+            }
+
+            Livro registro = Livro.builder()
+                    .livroId(livroId)
+                    .titulo(livro.getTitulo())
+                    .isbn(livro.getIsbn())
+                    .dataPublicacao(livro.getDataPublicacao())
+                    .editora(isNull(livro.getEditora()) ? null : em.getReference(Editora.class, idsEditoras.get(livro.getEditora().getNome())))
+                    .autores(livro.getAutores()
+                            .stream()
+                            .map(autor -> idsAutores.get(autor.getNome()))
+                            .distinct()
+                            .map(autorId -> em.getReference(Autor.class, autorId))
+                            .collect(Collectors.toList()))
+                    .build();
+
+            Livro salvo;
+            if (isNull(registro.getLivroId())) {
+                em.persist(registro);
+                salvo = registro;
+            } else {
+                salvo = em.merge(registro);
+            }
+
+            if (nonNull(salvo.getIsbn())) {
+                idsPorIsbn.put(salvo.getIsbn(), salvo.getLivroId());
+            }
+            ids.add(salvo.getLivroId());
+
+            if (ids.size() % tamanhoBatch == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+
+        return ids;
     }
 
     public Optional<Livro> findById(Long id) {
@@ -54,38 +166,636 @@ public class LivroDAO extends GenericDAO<Livro, Long> {
         return executeSingleQueryForType(Long.class, jpql, autorId).orElse(0L) > 0;
     }
 
-    public Livro buscarPorIsbn(Long isbn) {
+    /**
+     * Percorre o título, nome da editora e dos autores de todos os livros, usados para montar o índice de busca em
+     * memória. Os registros são lidos aos poucos (sem carregar as entidades), então a memória usada não depende da
+     * quantidade de livros.
+     *
+     * @param consumidor Recebe o ID de cada livro e a lista com os seus textos
+     */
+    public void percorrerTextosBusca(BiConsumer<Long, List<String>> consumidor) {
+        String jpql = "SELECT l.livroId, l.titulo, e.nome, a.nome FROM Livro l LEFT JOIN l.editora e LEFT JOIN l.autores a ORDER BY l.livroId";
+
+        executarEmTransacao(em -> {
+            Long livroAtual = null;
+            List<String> textos = new ArrayList<>();
+
+            Iterator<Object[]> registros = em.createQuery(jpql, Object[].class)
+                    .setHint(QueryHints.FETCH_SIZE, TAMANHO_LEITURA_TEXTOS_BUSCA)
+                    .setHint(QueryHints.READ_ONLY, true)
+                    .getResultStream()
+                    .iterator();
+
+            while (registros.hasNext()) {
+                Object[] registro = registros.next();
+                Long livroId = (Long) registro[0];
+                if (!livroId.equals(livroAtual)) {
+                    if (nonNull(livroAtual)) {
+                        consumidor.accept(livroAtual, textos);
+                        textos = new ArrayList<>();
+                    }
+                    livroAtual = livroId;
+                    textos.add((String) registro[1]);
+                    textos.add((String) registro[2]);
+                }
+                textos.add((String) registro[3]);
+            }
+
+            if (nonNull(livroAtual)) {
+                consumidor.accept(livroAtual, textos);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Percorre o ISBN de todos os livros que possuem ISBN, usado para montar o índice de ISBNs em memória. Lido da
+     * mesma forma que {@link #percorrerTextosBusca(BiConsumer)}.
+     *
+     * @param consumidor Recebe o ISBN e o ID de cada livro
+     */
+    public void percorrerIsbns(BiConsumer<Long, Long> consumidor) {
+        String jpql = "SELECT l.isbn, l.livroId FROM Livro l WHERE l.isbn IS NOT NULL";
+
+        executarEmTransacao(em -> {
+            Iterator<Object[]> registros = em.createQuery(jpql, Object[].class)
+                    .setHint(QueryHints.FETCH_SIZE, TAMANHO_LEITURA_ISBNS)
+                    .setHint(QueryHints.READ_ONLY, true)
+                    .getResultStream()
+                    .iterator();
+
+            while (registros.hasNext()) {
+                Object[] registro = registros.next();
+                consumidor.accept((Long) registro[0], (Long) registro[1]);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Busca uma página de livros (com autores e editora), ordenados pelo ID.
+     * <br>
+     * Usa paginação por chave: a página começa após o último ID da página anterior, usando o índice da chave primária.
+     * Diferente do OFFSET, o custo não aumenta conforme as páginas avançam. Os IDs são buscados primeiro, para que o
+     * limite seja aplicado no banco e não sobre as linhas do JOIN com os autores.
+     *
+     * @param ultimoId ID do último livro da página anterior, ou null para a primeira página
+     * @param tamanho  Quantidade máxima de livros da página
+     * @return Lista com os livros da página
+     */
+    public List<LivroDto> buscarPagina(Long ultimoId, int tamanho) {
+        String jpql = "SELECT l.livroId FROM Livro l WHERE l.livroId > ?1 ORDER BY l.livroId";
+
         EntityManager em = databaseManager.getEntityManager();
-        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<Long> ids;
+        try {
+            ids = em.createQuery(jpql, Long.class)
+                    .setParameter(1, isNull(ultimoId) ? 0L : ultimoId)
+                    .setMaxResults(tamanho)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+
+        return buscarPorIds(ids);
+    }
+
+    /**
+     * Busca uma página de livros com ISBN e sem editora, data de publicação ou autores, ordenados pelo ID. Usa
+     * paginação por chave, como {@link #buscarPagina(Long, int)}.
+     *
+     * @param ultimoId ID do último livro da página anterior, ou null para a primeira página
+     * @param tamanho  Quantidade máxima de livros da página
+     * @return Lista com os livros da página (com autores e editora)
+     */
+    public List<LivroDto> buscarPaginaIncompletos(Long ultimoId, int tamanho) {
+        String jpql = new StringBuilder()
+                .append(" SELECT l.livroId FROM Livro l ")
+                .append(" WHERE l.livroId > ?1 AND l.isbn IS NOT NULL ")
+                .append("   AND (l.editora IS NULL OR l.dataPublicacao IS NULL OR l.autores IS EMPTY) ")
+                .append(" ORDER BY l.livroId ")
+                .toString();
+
+        EntityManager em = databaseManager.getEntityManager();
+        List<Long> ids;
+        try {
+            ids = em.createQuery(jpql, Long.class)
+                    .setParameter(1, isNull(ultimoId) ? 0L : ultimoId)
+                    .setMaxResults(tamanho)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+
+        return buscarPorIds(ids);
+    }
+
+    /**
+     * Busca os livros (com autores e editora) a partir de uma posição da listagem ordenada pelo ID.
+     * <br>
+     * Usa OFFSET, então o custo aumenta conforme a posição. Usado apenas quando o ID do livro anterior não é conhecido
+     * (ex.: a tabela foi rolada direto para o fim); nos demais casos, {@link #buscarPagina(Long, int)} é preferível.
+     *
+     * @param inicio  Posição do primeiro livro, começando em 0
+     * @param tamanho Quantidade máxima de livros
+     * @return Lista com os livros encontrados
+     */
+    public List<LivroDto> buscarPaginaPorPosicao(int inicio, int tamanho) {
+        String jpql = "SELECT l.livroId FROM Livro l ORDER BY l.livroId";
+
+        EntityManager em = databaseManager.getEntityManager();
+        List<Long> ids;
+        try {
+            ids = em.createQuery(jpql, Long.class)
+                    .setFirstResult(inicio)
+                    .setMaxResults(tamanho)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+
+        return buscarPorIds(ids);
+    }
+
+    public long contarLivros() {
+        EntityManager em = databaseManager.getEntityManager();
+        try {
+            return em.createQuery("SELECT count(l) FROM Livro l", Long.class)
+                    .setHint(QueryHints.CACHEABLE, true)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Busca os IDs dos livros cujo ID ou ISBN sejam os informados, com uma única consulta
+     *
+     * @param id   ID do livro, ou null para não buscar pelo ID
+     * @param isbn ISBN do livro, ou null para não buscar pelo ISBN
+     * @return IDs encontrados. O livro encontrado pelo ID vem antes do encontrado pelo ISBN
+     */
+    public List<Long> buscarIdsPorIdOuIsbn(Long id, Long isbn) {
+        if (isNull(id) && isNull(isbn)) {
+            return Collections.emptyList();
+        }
+
+        String jpql = "SELECT l.livroId FROM Livro l WHERE l.livroId = ?1 OR l.isbn = ?2";
+
+        EntityManager em = databaseManager.getEntityManager();
+        try {
+            return em.createQuery(jpql, Long.class)
+                    .setParameter(1, isNull(id) ? -1L : id)
+                    .setParameter(2, isNull(isbn) ? -1L : isbn)
+                    .getResultList()
+                    .stream()
+                    .sorted(Comparator.comparing(livroId -> !livroId.equals(id)))
+                    .collect(Collectors.toList());
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Busca os IDs dos livros pelo título, nome dos autores ou da editora, sem carregar os livros. Mesmos critérios e
+     * ordem de {@link #buscarTextoGeral(String, Consumer, CancelamentoConsulta)}.
+     *
+     * @param termo Termo a ser buscado
+     * @return IDs dos livros encontrados, ordenados por relevância
+     */
+    public List<Long> buscarIdsTextoGeral(String termo) {
+        List<Long> ids = new ArrayList<>();
+        percorrerIdsTextoGeral(termo, (em, bloco) -> ids.addAll(bloco), new CancelamentoConsulta());
+        return ids;
+    }
+
+    /**
+     * Busca livros pelo título, nome dos autores ou da editora, usando o índice de texto completo do banco:
+     * <br>- PostgreSQL: coluna busca (tsvector, com índice GIN), comparando o início de cada palavra e ordenando por
+     * relevância (ts_rank_cd, com peso maior para o título, depois autores e editora)
+     * <br>- H2: full-text nativo (FT_SEARCH_DATA), com cada palavra do termo precisando aparecer no título, autores ou
+     * editora. A relevância é a soma dos pesos de onde cada palavra foi encontrada (título 3, autor 2, editora 1)
+     * <br>
+     * São retornados até {@value #TAMANHO_MAXIMO_BUSCA_TEXTUAL} livros, do mais para o menos relevante. Caso a busca
+     * de texto completo não encontre nada (ex.: parte de uma palavra no H2) ou não esteja disponível, é feita a busca
+     * por {@code LIKE}, que compara qualquer trecho do texto, em ordem de ID.
+     * <br>
+     * Os livros são entregues em blocos de até {@value #TAMANHO_BLOCO_BUSCA_TEXTUAL}, conforme são buscados, sem
+     * esperar o fim da busca. Na busca por {@code LIKE}, os IDs são lidos do banco aos poucos (fetch size), então o
+     * primeiro bloco chega sem que todos os resultados tenham sido lidos.
+     * <br>
+     * A busca pode ser interrompida pelo {@link CancelamentoConsulta}, inclusive durante um comando em execução no
+     * banco. Cada comando também tem um tempo limite de {@value #TEMPO_MAXIMO_BUSCA_TEXTUAL_MS} ms.
+     *
+     * @param termo        Termo a ser buscado
+     * @param consumidor   Recebe cada bloco de livros encontrados, na ordem do resultado
+     * @param cancelamento Controle de cancelamento da busca
+     * @throws java.util.concurrent.CancellationException Caso a busca seja cancelada
+     */
+    public void buscarTextoGeral(String termo, Consumer<List<LivroDto>> consumidor, CancelamentoConsulta cancelamento) {
+        percorrerIdsTextoGeral(termo, (em, ids) -> {
+            cancelamento.verificar();
+            consumidor.accept(buscarPorIds(em, ids));
+        }, cancelamento);
+    }
+
+    /**
+     * Busca os IDs da busca textual em blocos de até {@value #TAMANHO_BLOCO_BUSCA_TEXTUAL}, entregando cada bloco com
+     * o EntityManager da busca, para que os livros possam ser carregados na mesma transação
+     */
+    private void percorrerIdsTextoGeral(String termo, BiConsumer<EntityManager, List<Long>> consumidor, CancelamentoConsulta cancelamento) {
+        List<String> palavras = extrairPalavras(termo);
+        if (!palavras.isEmpty()) {
+            try {
+                boolean encontrou = executarCancelavel(cancelamento, em -> {
+                    List<Long> ids = TipoConexaoBanco.POSTGRES == databaseManager.getTipoBanco()
+                            ? buscarIdsTextoCompletoPostgres(em, palavras)
+                            : buscarIdsTextoCompletoH2(em, palavras, cancelamento);
+
+                    for (int i = 0; i < ids.size(); i += TAMANHO_BLOCO_BUSCA_TEXTUAL) {
+                        consumidor.accept(em, ids.subList(i, Math.min(i + TAMANHO_BLOCO_BUSCA_TEXTUAL, ids.size())));
+                    }
+                    return !ids.isEmpty();
+                });
+
+                if (encontrou) {
+                    return;
+                }
+            } catch (PersistenceException e) {
+                log.warn("Busca de texto completo indisponível, será feita a busca por LIKE: {}", e.getMessage());
+            }
+        }
 
-        CriteriaQuery<Livro> query = cb.createQuery(entityClass);
-        Root<Livro> root = query.from(entityClass);
+        percorrerIdsTextoGeralLike(termo, consumidor, cancelamento);
+    }
+
+    /**
+     * Os autores e a editora são comparados em subconsultas, para que cada livro apareça uma única vez sem precisar de
+     * DISTINCT, e o resultado possa ser lido em ordem de ID sem ordenar tudo antes.
+     */
+    private void percorrerIdsTextoGeralLike(String termo, BiConsumer<EntityManager, List<Long>> consumidor, CancelamentoConsulta cancelamento) {
+        String jpql = new StringBuilder()
+                .append(" SELECT l.livroId FROM Livro l ")
+                .append(" WHERE l.titulo LIKE ?1 ")
+                .append(" OR l.editora IN (SELECT e FROM Editora e WHERE e.nome LIKE ?1) ")
+                .append(" OR l.livroId IN (SELECT la.livroId FROM Livro la JOIN la.autores a WHERE a.nome LIKE ?1) ")
+                .append(" ORDER BY l.livroId ")
+                .toString();
 
-        Predicate condicao = cb.equal(root.get("isbn"), isbn);
-        query.select(root).where(condicao);
+        executarCancelavel(cancelamento, em -> {
+            Iterator<Long> ids = em.createQuery(jpql, Long.class)
+                    .setParameter(1, "%" + termo + "%")
+                    .setHint(QueryHints.FETCH_SIZE, TAMANHO_BLOCO_BUSCA_TEXTUAL)
+                    .setHint(QueryHints.READ_ONLY, true)
+                    .setHint(QueryHints.TIMEOUT_JPA, TEMPO_MAXIMO_BUSCA_TEXTUAL_MS)
+                    .getResultStream()
+                    .iterator();
 
-        return em.createQuery(query).getSingleResult();
+            List<Long> bloco = new ArrayList<>(TAMANHO_BLOCO_BUSCA_TEXTUAL);
+            while (ids.hasNext()) {
+                bloco.add(ids.next());
+                if (bloco.size() == TAMANHO_BLOCO_BUSCA_TEXTUAL) {
+                    consumidor.accept(em, bloco);
+                    bloco = new ArrayList<>(TAMANHO_BLOCO_BUSCA_TEXTUAL);
+                }
+            }
+
+            if (!bloco.isEmpty()) {
+                consumidor.accept(em, bloco);
+            }
+            return null;
+        });
     }
 
-    public List<Livro> buscarTextoGeral(String termo) {
-        String parametro = "%" + termo + "%";
+    /**
+     * Separa o termo em palavras (sequências de letras e números), descartando pontuação e operadores de busca
+     */
+    private List<String> extrairPalavras(String termo) {
+        return Arrays.stream(termo.split("[^\\p{L}\\p{N}]+"))
+                .filter(palavra -> !palavra.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Cada palavra vira um prefixo (palavra:*) e todas precisam ser encontradas (&amp;)
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> buscarIdsTextoCompletoPostgres(EntityManager em, List<String> palavras) {
+        String consulta = palavras.stream()
+                .map(palavra -> palavra + ":*")
+                .collect(Collectors.joining(" & "));
+
+        String sql = new StringBuilder()
+                .append(" SELECT l.livro_id ")
+                .append(" FROM {h-schema}livros l ")
+                .append(" WHERE l.busca @@ to_tsquery('simple', ?1) ")
+                .append(" ORDER BY ts_rank_cd(l.busca, to_tsquery('simple', ?1)) DESC, l.livro_id ")
+                .append(" LIMIT ").append(TAMANHO_MAXIMO_BUSCA_TEXTUAL)
+                .toString();
+
+        List<Number> ids = em.createNativeQuery(sql)
+                .setParameter(1, consulta)
+                .setHint(QueryHints.TIMEOUT_JPA, TEMPO_MAXIMO_BUSCA_TEXTUAL_MS)
+                .getResultList();
+
+        return ids.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * O full-text nativo do H2 exige que todas as palavras pesquisadas estejam no mesmo registro. Como título, autores
+     * e editora são indexados em tabelas diferentes, cada palavra é pesquisada separadamente e são mantidos apenas os
+     * livros encontrados por todas elas.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> buscarIdsTextoCompletoH2(EntityManager em, List<String> palavras, CancelamentoConsulta cancelamento) {
+        String sql = new StringBuilder()
+                .append(" SELECT r.livro_id, SUM(r.peso) FROM ( ")
+                .append("     SELECT l.livro_id, 3 AS peso FROM FT_SEARCH_DATA(?1, 0, 0) ft ")
+                .append("     JOIN livros l ON l.livro_id = CAST(ft.KEYS[1] AS INT) ")
+                .append("     WHERE ft.\"TABLE\" = 'LIVROS' ")
+                .append("     UNION ALL ")
+                .append("     SELECT la.livro_id, 2 AS peso FROM FT_SEARCH_DATA(?1, 0, 0) ft ")
+                .append("     JOIN livro_autor la ON la.autor_id = CAST(ft.KEYS[1] AS INT) ")
+                .append("     WHERE ft.\"TABLE\" = 'AUTORES' ")
+                .append("     UNION ALL ")
+                .append("     SELECT l.livro_id, 1 AS peso FROM FT_SEARCH_DATA(?1, 0, 0) ft ")
+                .append("     JOIN livros l ON l.editora_id = CAST(ft.KEYS[1] AS INT) ")
+                .append("     WHERE ft.\"TABLE\" = 'EDITORAS' ")
+                .append(" ) r ")
+                .append(" GROUP BY r.livro_id ")
+                .toString();
+
+        Map<Long, Integer> relevancia = null;
+        for (String palavra : palavras) {
+            cancelamento.verificar();
+            List<Object[]> registros = em.createNativeQuery(sql)
+                    .setParameter(1, palavra)
+                    .setHint(QueryHints.TIMEOUT_JPA, TEMPO_MAXIMO_BUSCA_TEXTUAL_MS)
+                    .getResultList();
+
+            Map<Long, Integer> encontrados = new HashMap<>();
+            for (Object[] registro : registros) {
+                long livroId = ((Number) registro[0]).longValue();
+                int peso = ((Number) registro[1]).intValue();
+                if (isNull(relevancia)) {
+                    encontrados.put(livroId, peso);
+                } else if (relevancia.containsKey(livroId)) {
+                    encontrados.put(livroId, relevancia.get(livroId) + peso);
+                }
+            }
+
+            relevancia = encontrados;
+            if (relevancia.isEmpty()) {
+                break;
+            }
+        }
+
+        return relevancia.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TAMANHO_MAXIMO_BUSCA_TEXTUAL)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Busca os livros (com autores e editora) dos IDs informados, mantendo a ordem da lista. IDs que não existirem são
+     * ignorados.
+     * <br>
+     * Usado na listagem e na busca, que apenas exibem os livros: as consultas selecionam somente as colunas exibidas e
+     * montam o {@link LivroDto} direto, sem criar entidades gerenciadas nem as cópias usadas pelo Hibernate para
+     * detectar alterações.
+     *
+     * @param ids IDs dos livros
+     * @return Lista com os livros encontrados
+     */
+    public List<LivroDto> buscarPorIds(List<Long> ids) {
         EntityManager em = databaseManager.getEntityManager();
-        CriteriaBuilder cb = em.getCriteriaBuilder();
+        try {
+            return buscarPorIds(em, ids);
+        } finally {
+            em.close();
+        }
+    }
 
-        CriteriaQuery<Livro> query = cb.createQuery(entityClass);
-        Root<Livro> root = query.from(entityClass);
+    /**
+     * São feitas duas consultas a cada {@value #TAMANHO_MAXIMO_IN} IDs: uma com os dados do livro e da editora (uma
+     * linha por livro) e outra com os autores. Buscar os autores no mesmo JOIN repetiria os dados do livro e da editora
+     * para cada autor.
+     */
+    private List<LivroDto> buscarPorIds(EntityManager em, List<Long> ids) {
+        String jpqlLivros = new StringBuilder()
+                .append(" SELECT ")
+                .append("    l.livroId AS livroId, l.titulo AS titulo, l.dataPublicacao AS dataPublicacao, l.isbn AS isbn, ")
+                .append("    e.editoraId AS editoraId, e.nome AS editora ")
+                .append(" FROM ")
+                .append("    Livro l ")
+                .append(" LEFT JOIN ")
+                .append("    l.editora e ")
+                .append(" WHERE ")
+                .append("    l.livroId IN ?1 ")
+                .toString();
+        String jpqlAutores = "SELECT l.livroId AS livroId, a.autorId AS autorId, a.nome AS nome FROM Livro l JOIN l.autores a WHERE l.livroId IN ?1";
+
+        Map<Long, LivroDto> livrosPorId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += TAMANHO_MAXIMO_IN) {
+            List<Long> bloco = ids.subList(i, Math.min(i + TAMANHO_MAXIMO_IN, ids.size()));
 
-        Predicate condicaoTitulo = cb.like(root.get("titulo"), parametro);
+            criarConsultaLeitura(em, jpqlLivros, bloco).getResultList().forEach(registro -> {
+                Long editoraId = registro.get("editoraId", Long.class);
+                LivroDto livro = LivroDto.builder()
+                        .livroId(registro.get("livroId", Long.class))
+                        .titulo(registro.get("titulo", String.class))
+                        .dataPublicacao(registro.get("dataPublicacao", LocalDate.class))
+                        .isbn(registro.get("isbn", Long.class))
+                        .editora(isNull(editoraId) ? null : EditoraDto.builder()
+                                .editoraId(editoraId)
+                                .nome(registro.get("editora", String.class))
+                                .build())
+                        .build();
+                livrosPorId.put(livro.getLivroId(), livro);
+            });
 
-        Join<Livro, Editora> editoraJoin = root.join("editora", JoinType.LEFT);
-        Predicate condicaoEditora = cb.like(editoraJoin.get("nome"), parametro);
+            criarConsultaLeitura(em, jpqlAutores, bloco).getResultList().forEach(registro -> livrosPorId
+                    .get(registro.get("livroId", Long.class))
+                    .getAutores()
+                    .add(AutorDto.builder()
+                            .autorId(registro.get("autorId", Long.class))
+                            .nome(registro.get("nome", String.class))
+                            .build()));
+        }
+
+        return ids.stream()
+                .map(livrosPorId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cria uma consulta de projeção somente leitura: o Hibernate não descarrega o contexto antes de executá-la
+     * (FlushMode MANUAL), já que nada é alterado durante a leitura
+     */
+    private TypedQuery<Tuple> criarConsultaLeitura(EntityManager em, String jpql, List<Long> ids) {
+        return em.createQuery(jpql, Tuple.class)
+                .setParameter(1, ids)
+                .setHint(QueryHints.READ_ONLY, true)
+                .setHint(QueryHints.FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    /**
+     * Busca, com uma única consulta, os IDs dos livros já cadastrados com os ISBNs do lote
+     */
+    private Map<Long, Long> buscarIdsPorIsbn(EntityManager em, List<Livro> livros) {
+        Set<Long> isbns = livros.stream()
+                .map(Livro::getIsbn)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, Long> idsPorIsbn = new HashMap<>();
+        if (isbns.isEmpty()) {
+            return idsPorIsbn;
+        }
+
+        em.createQuery("SELECT l.isbn, l.livroId FROM Livro l WHERE l.isbn IN ?1", Object[].class)
+                .setParameter(1, isbns)
+                .getResultList()
+                .forEach(registro -> idsPorIsbn.put((Long) registro[0], (Long) registro[1]));
+
+        return idsPorIsbn;
+    }
+
+    /**
+     * Busca os IDs de editoras ou autores pelo nome, sem diferenciar maiúsculas e minúsculas, cadastrando os que não
+     * existirem.
+     * <br>
+     * São feitas apenas uma consulta {@code IN} (na coluna nome_normalizado, que possui índice único) e um INSERT de
+     * várias linhas a cada {@value #TAMANHO_MAXIMO_IN} nomes, seguidos de uma nova consulta para obter os IDs gerados.
+     * O INSERT ignora nomes que outra transação tenha cadastrado nesse meio tempo.
+     *
+     * @param em        EntityManager da transação
+     * @param entidade  Entidade (Editora ou Autor)
+     * @param campoId   Nome do atributo de ID da entidade
+     * @param tabela    Tabela da entidade, usada no INSERT
+     * @param nomes     Nomes a serem resolvidos
+     * @return Map com o ID de cada nome
+     */
+    private Map<String, Long> resolverIdsPorNome(EntityManager em, Class<?> entidade, String campoId, String tabela, Set<String> nomes) {
+        Map<String, String> nomesPorNormalizado = nomes.stream()
+                .collect(Collectors.toMap(this::normalizarNome, nome -> nome, (primeiro, segundo) -> primeiro));
+
+        Map<String, Long> idsPorNormalizado = buscarIdsPorNome(em, entidade, campoId, nomesPorNormalizado.keySet());
+
+        List<String> faltantes = nomesPorNormalizado.entrySet()
+                .stream()
+                .filter(nome -> !idsPorNormalizado.containsKey(nome.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+
+        if (!faltantes.isEmpty()) {
+            for (int i = 0; i < faltantes.size(); i += TAMANHO_MAXIMO_IN) {
+                inserirNomes(em, entidade, tabela, faltantes.subList(i, Math.min(i + TAMANHO_MAXIMO_IN, faltantes.size())));
+            }
+            idsPorNormalizado.putAll(buscarIdsPorNome(em, entidade, campoId, faltantes.stream()
+                    .map(this::normalizarNome)
+                    .collect(Collectors.toSet())));
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        for (String nome : nomes) {
+            Long id = idsPorNormalizado.get(normalizarNome(nome));
+            if (isNull(id)) {
+                // maiúsculas diferentes entre o Java e o banco (ex.: caracteres especiais): busca usando o UPPER do banco
+                String jpql = String.format("SELECT e.%s FROM %s e WHERE e.nomeNormalizado = UPPER(?1)", campoId, entidade.getSimpleName());
+                id = em.createQuery(jpql, Long.class)
+                        .setParameter(1, nome)
+                        .getSingleResult();
+            }
+            ids.put(nome, id);
+        }
+
+        return ids;
+    }
+
+    private Map<String, Long> buscarIdsPorNome(EntityManager em, Class<?> entidade, String campoId, Set<String> nomesNormalizados) {
+        Map<String, Long> ids = new HashMap<>();
+        if (nomesNormalizados.isEmpty()) {
+            return ids;
+        }
+
+        String jpql = String.format("SELECT e.nomeNormalizado, e.%s FROM %s e WHERE e.nomeNormalizado IN ?1", campoId, entidade.getSimpleName());
+        List<String> lista = new ArrayList<>(nomesNormalizados);
+        for (int i = 0; i < lista.size(); i += TAMANHO_MAXIMO_IN) {
+            em.createQuery(jpql, Object[].class)
+                    .setParameter(1, lista.subList(i, Math.min(i + TAMANHO_MAXIMO_IN, lista.size())))
+                    .getResultList()
+                    .forEach(registro -> ids.put((String) registro[0], (Long) registro[1]));
+        }
+
+        return ids;
+    }
+
+    /**
+     * Mesma normalização da coluna nome_normalizado, gerada pelo banco com UPPER(nome)
+     */
+    private String normalizarNome(String nome) {
+        return nome.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Cadastra vários nomes com um único INSERT, ignorando os que já existirem na tabela.
+     * <br>
+     * O INSERT é associado à entidade, para que o Hibernate descarte apenas o cache dela (por padrão, um comando SQL
+     * nativo descarta o cache de segundo nível inteiro).
+     */
+    private void inserirNomes(EntityManager em, Class<?> entidade, String tabela, List<String> nomes) {
+        StringBuilder sql = new StringBuilder()
+                .append(" INSERT INTO {h-schema}").append(tabela).append(" (nome) ")
+                .append(" SELECT v.nome FROM (VALUES ");
+
+        for (int i = 1; i <= nomes.size(); i++) {
+            sql.append(i > 1 ? ", " : "").append("(CAST(?").append(i).append(" AS VARCHAR(255)))");
+        }
+
+        sql.append(") AS v(nome) ")
+                .append(" WHERE NOT EXISTS (SELECT 1 FROM {h-schema}").append(tabela).append(" t WHERE t.nome_normalizado = UPPER(v.nome)) ");
+
+        NativeQuery<?> query = em.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(entidade);
+        for (int i = 0; i < nomes.size(); i++) {
+            query.setParameter(i + 1, nomes.get(i));
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Verifica se o erro foi causado por uma restrição do banco (SQLState da classe 23, ex.: chave única duplicada)
+     */
+    private boolean isViolacaoRestricao(Throwable erro) {
+        for (Throwable causa = erro; nonNull(causa); causa = causa.getCause()) {
+            if (causa instanceof SQLException) {
+                String sqlState = ((SQLException) causa).getSQLState();
+                if (nonNull(sqlState) && sqlState.startsWith("23")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        Join<Livro, Autor> autoresJoin = root.join("autores", JoinType.LEFT);
-        Predicate condicaoAutores = cb.like(autoresJoin.get("nome"), parametro);
+    private int getTamanhoBatch(EntityManager em) {
+        Object valor = em.getEntityManagerFactory().getProperties().get(PROPRIEDADE_TAMANHO_BATCH);
+        if (isNull(valor)) {
+            return TAMANHO_BATCH_PADRAO;
+        }
 
-        Predicate condicaoFinal = cb.or(condicaoTitulo, condicaoEditora, condicaoAutores);
-        query.select(root).where(condicaoFinal).distinct(true);
-        return em.createQuery(query).getResultList();
+        try {
+            return Integer.parseInt(valor.toString());
+        } catch (NumberFormatException e) {
+            return TAMANHO_BATCH_PADRAO;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.biblioteca.catalogo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração do cliente da Open Library. Os valores padrão são os usados pela aplicação.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConfiguracaoOpenLibraryDto {
+
+    @Builder.Default
+    private long timeoutConexaoMs = 5_000;
+
+    @Builder.Default
+    private long timeoutLeituraMs = 10_000;
+
+    /**
+     * Tempo máximo da consulta completa, incluindo as novas tentativas
+     */
+    @Builder.Default
+    private long timeoutConsultaMs = 15_000;
+
+    /**
+     * Validade fixa das respostas de livros no cache, ou 0 para usar a informada pelo servidor
+     */
+    @Builder.Default
+    private long validadeLivrosSegundos = TimeUnit.HOURS.toSeconds(24);
+
+    /**
+     * Validade fixa das respostas de autores no cache, ou 0 para usar a informada pelo servidor
+     */
+    @Builder.Default
+    private long validadeAutoresSegundos = TimeUnit.DAYS.toSeconds(30);
+
+    /**
+     * Requisições enviadas à API por minuto, ou 0 para não limitar
+     */
+    @Builder.Default
+    private long requisicoesPorMinuto = 180;
+
+    /**
+     * Requisições que podem ser enviadas de uma vez após um período sem uso
+     */
+    @Builder.Default
+    private long rajadaRequisicoes = 6;
+
+    /**
+     * Novas tentativas após uma resposta 429 ou 5xx, ou 0 para não tentar novamente
+     */
+    @Builder.Default
+    private long maximoRetentativas = 2;
+
+    @Builder.Default
+    private long esperaInicialRetentativaMs = 500;
+
+    @Builder.Default
+    private long esperaMaximaRetentativaMs = 8_000;
+
+    /**
+     * Falhas seguidas para abrir o circuito, ou 0 para não usar o circuito
+     */
+    @Builder.Default
+    private long falhasAbrirCircuito = 5;
+
+    @Builder.Default
+    private long tempoCircuitoAbertoMs = 30_000;
+}
@@ -0,0 +1,20 @@
+package com.biblioteca.catalogo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasCacheDto {
+
+    private String regiao;
+
+    private long acertos;
+    private long falhas;
+    private long insercoes;
+    private double taxaAcerto;
+}
@@ -0,0 +1,23 @@
+package com.biblioteca.catalogo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasPoolDto {
+
+    private int conexoesAtivas;
+    private int conexoesOciosas;
+    private int conexoesTotais;
+    private int threadsAguardando;
+
+    private long quantidadeAquisicoes;
+    private double tempoMedioAquisicaoMillis;
+    private double tempoMaximoAquisicaoMillis;
+    private long quantidadeTimeouts;
+}
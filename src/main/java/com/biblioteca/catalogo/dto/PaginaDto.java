@@ -0,0 +1,36 @@
+package com.biblioteca.catalogo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Página de uma consulta paginada por chave (keyset). Para buscar a página seguinte, o {@link #proximoCursor} deve
+ * ser informado na próxima consulta.
+ *
+ * @param <T> Tipo dos itens da página
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaDto<T> {
+
+    @Builder.Default
+    private List<T> itens = new ArrayList<>();
+
+    /**
+     * Chave do último item da página, ou null caso seja a última página
+     */
+    private Long proximoCursor;
+
+    public boolean isUltimaPagina() {
+        return isNull(proximoCursor);
+    }
+}
@@ -0,0 +1,41 @@
+package com.biblioteca.catalogo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoImportacaoDto {
+
+    private int quantidadeImportados;
+
+    @Builder.Default
+    private List<String> erros = new ArrayList<>();
+
+    private long tempoMillis;
+
+    public int getTotalLinhas() {
+        return quantidadeImportados + erros.size();
+    }
+
+    /**
+     * Calcula a vazão da importação
+     *
+     * @return Quantidade de livros salvos por segundo
+     */
+    public double getLivrosPorSegundo() {
+        if (tempoMillis <= 0) {
+            return quantidadeImportados;
+        }
+
+        return quantidadeImportados * 1000.0 / tempoMillis;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.biblioteca.catalogo.dto.openlibrary;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados de um livro retornados pela consulta em lote (/api/books com jscmd=data). Diferente de
+ * {@link LivroResponseDto}, já traz o nome dos autores e editoras.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DadosLivroResponseDto {
+
+    private String title;
+
+    @Builder.Default
+    private List<EditoraResponseDto> publishers = new ArrayList<>();
+
+    @Builder.Default
+    private List<AutorResponseDto> authors = new ArrayList<>();
+
+    @JsonProperty("publish_date")
+    @JsonFormat(pattern = "MMMM d, yyyy", locale = "en")
+    private LocalDate publishDate;
+
+}
@@ -5,6 +5,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
+
 import javax.persistence.*;
 
 @Data
@@ -13,6 +18,8 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Entity
 @Table(name = "autores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "autores")
 public class Autor {
 
     @Id
@@ -23,4 +30,12 @@ public class Autor {
     @Column(nullable = false)
     private String nome;
 
+    /**
+     * Nome em maiúsculas, gerado pelo banco. Usado nas buscas por nome e possui índice único.
+     * Lido novamente após gravar, para que a entidade em cache não fique sem o valor
+     */
+    @Generated(GenerationTime.ALWAYS)
+    @Column(name = "nome_normalizado", insertable = false, updatable = false)
+    private String nomeNormalizado;
+
 }
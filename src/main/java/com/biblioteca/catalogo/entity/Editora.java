@@ -1,6 +1,11 @@
 package com.biblioteca.catalogo.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -11,6 +16,8 @@ import java.util.Set;
 @NoArgsConstructor
 @Entity
 @Table(name = "editoras")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "editoras")
 public class Editora {
 
     @Id
@@ -20,4 +27,12 @@ public class Editora {
 
     private String nome;
 
+    /**
+     * Nome em maiúsculas, gerado pelo banco. Usado nas buscas por nome e possui índice único.
+     * Lido novamente após gravar, para que a entidade em cache não fique sem o valor
+     */
+    @Generated(GenerationTime.ALWAYS)
+    @Column(name = "nome_normalizado", insertable = false, updatable = false)
+    private String nomeNormalizado;
+
 }
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -16,6 +19,8 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "livros")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "livros")
 public class Livro {
 
     @Id
@@ -26,7 +31,14 @@ public class Livro {
     @Column(nullable = false)
     private String titulo;
 
+    /**
+     * Carregados sob demanda. Ao carregar os autores de um livro, os dos demais livros carregados no mesmo
+     * EntityManager são buscados juntos, em uma única consulta para até 500 livros, evitando uma consulta por livro.
+     * Com o cache de segundo nível habilitado, os IDs dos autores de cada livro também ficam em cache
+     */
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 500)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "livros-autores")
     @JoinTable(
             name = "livro_autor",
             joinColumns = @JoinColumn(name = "livro_id"),
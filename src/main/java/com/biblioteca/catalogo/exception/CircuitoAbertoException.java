@@ -0,0 +1,15 @@
+package com.biblioteca.catalogo.exception;
+
+import java.io.IOException;
+
+/**
+ * Lançada quando uma requisição é recusada sem acessar a rede porque o serviço está indisponível (circuito aberto).
+ * Estende {@link IOException} para ser tratada como as demais falhas de comunicação.
+ */
+public class CircuitoAbertoException extends IOException {
+
+    public CircuitoAbertoException(String mensagem) {
+        super(mensagem);
+    }
+
+}
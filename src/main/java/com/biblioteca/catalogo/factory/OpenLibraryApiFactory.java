@@ -0,0 +1,198 @@
+package com.biblioteca.catalogo.factory;
+
+import com.biblioteca.catalogo.api.OpenLibraryApi;
+import com.biblioteca.catalogo.api.interceptor.CircuitoInterceptor;
+import com.biblioteca.catalogo.api.interceptor.LimitadorRequisicoesInterceptor;
+import com.biblioteca.catalogo.api.interceptor.RetentativaInterceptor;
+import com.biblioteca.catalogo.dto.ConfiguracaoOpenLibraryDto;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Cria o cliente da {@link OpenLibraryApi}.
+ * <br>
+ * As respostas são guardadas em um cache em disco, respeitando os cabeçalhos Cache-Control e ETag do servidor: uma
+ * resposta ainda válida é usada sem acessar a rede, e uma expirada com ETag é revalidada sem baixar o conteúdo
+ * novamente. Ao atingir o tamanho máximo, as respostas usadas há mais tempo são descartadas. Como o cadastro de livros
+ * e autores raramente muda, é possível definir uma validade fixa para as respostas, ignorando a informada pelo servidor.
+ * <br>
+ * As requisições passam, nesta ordem, por:
+ * <br>- {@link CircuitoInterceptor}: falha de imediato (ou usa apenas o cache) enquanto o serviço estiver indisponível
+ * <br>- {@link RetentativaInterceptor}: repete as respostas 429 e 5xx, com espera exponencial e aleatória
+ * <br>- cache em disco
+ * <br>- {@link LimitadorRequisicoesInterceptor}: limita as requisições enviadas à rede por minuto
+ * <br>
+ * Parâmetros da JVM (os padrões estão em {@link ConfiguracaoOpenLibraryDto}):
+ * <br>- openlibrary.cache.diretorio: diretório do cache (padrão {@value #DIRETORIO_CACHE_PADRAO})
+ * <br>- openlibrary.cache.tamanhoMb: tamanho máximo em MB, 0 desabilita o cache (padrão {@value #TAMANHO_CACHE_MB_PADRAO})
+ * <br>- openlibrary.cache.validadeLivrosHoras e openlibrary.cache.validadeAutoresHoras: validade fixa das respostas,
+ * 0 usa a do servidor
+ * <br>- openlibrary.timeout.conexaoMs, openlibrary.timeout.leituraMs e openlibrary.timeout.consultaMs: tempos limite
+ * <br>- openlibrary.limite.requisicoesPorMinuto (0 não limita) e openlibrary.limite.rajada
+ * <br>- openlibrary.retentativa.maximo (0 não repete), openlibrary.retentativa.esperaInicialMs e
+ * openlibrary.retentativa.esperaMaximaMs
+ * <br>- openlibrary.circuito.falhas (0 não usa o circuito) e openlibrary.circuito.tempoAbertoMs
+ */
+@Slf4j
+public final class OpenLibraryApiFactory {
+
+    private static final String URL_BASE = "https://openlibrary.org";
+    private static final String DIRETORIO_CACHE_PADRAO = "./openlibrary-cache";
+    private static final long TAMANHO_CACHE_MB_PADRAO = 50;
+
+    private OpenLibraryApiFactory() {
+    }
+
+    /**
+     * Cria o cliente da Open Library com o cache e a configuração definidos pelos parâmetros da JVM
+     */
+    public static OpenLibraryApi criar() {
+        return criar(URL_BASE, criarCache(), lerConfiguracao());
+    }
+
+    /**
+     * @param urlBase      Endereço da API
+     * @param cache        Cache das respostas, ou null para não usar cache
+     * @param configuracao Tempos limite, validade do cache, limite de requisições, novas tentativas e circuito
+     */
+    public static OpenLibraryApi criar(String urlBase, Cache cache, ConfiguracaoOpenLibraryDto configuracao) {
+        OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
+                .cache(cache)
+                .connectTimeout(configuracao.getTimeoutConexaoMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(configuracao.getTimeoutLeituraMs(), TimeUnit.MILLISECONDS)
+                // inclui conexão, envio, leitura e novas tentativas, liberando a thread mesmo se a resposta vier aos poucos
+                .callTimeout(configuracao.getTimeoutConsultaMs(), TimeUnit.MILLISECONDS);
+
+        if (configuracao.getFalhasAbrirCircuito() > 0) {
+            httpClient.addInterceptor(new CircuitoInterceptor(configuracao.getFalhasAbrirCircuito(),
+                    configuracao.getTempoCircuitoAbertoMs()));
+        }
+        if (configuracao.getMaximoRetentativas() > 0) {
+            httpClient.addInterceptor(new RetentativaInterceptor(configuracao.getMaximoRetentativas(),
+                    configuracao.getEsperaInicialRetentativaMs(), configuracao.getEsperaMaximaRetentativaMs()));
+        }
+        if (configuracao.getRequisicoesPorMinuto() > 0) {
+            httpClient.addNetworkInterceptor(new LimitadorRequisicoesInterceptor(configuracao.getRequisicoesPorMinuto(),
+                    configuracao.getRajadaRequisicoes()));
+        }
+        httpClient.addNetworkInterceptor(validadeFixa(configuracao.getValidadeLivrosSegundos(),
+                configuracao.getValidadeAutoresSegundos()));
+
+        return new Retrofit.Builder()
+                .baseUrl(urlBase)
+                .client(httpClient.build())
+                .addConverterFactory(JacksonConverterFactory.create(criarObjectMapper()))
+                .build()
+                .create(OpenLibraryApi.class);
+    }
+
+    /**
+     * Substitui o Cache-Control das respostas de sucesso vindas da rede pela validade fixa, antes de serem guardadas no
+     * cache. A consulta de livro por ISBN é redirecionada para /books, então as duas respostas recebem a validade.
+     */
+    private static Interceptor validadeFixa(long validadeLivrosSegundos, long validadeAutoresSegundos) {
+        return chain -> {
+            Response response = chain.proceed(chain.request());
+            String caminho = chain.request().url().encodedPath();
+
+            long validade = 0;
+            if (caminho.startsWith("/author")) {
+                validade = validadeAutoresSegundos;
+            } else if (caminho.startsWith("/isbn/") || caminho.startsWith("/books/")) {
+                validade = validadeLivrosSegundos;
+            }
+
+            if (validade <= 0 || response.code() < 200 || response.code() >= 400) {
+                return response;
+            }
+
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", "public, max-age=" + validade)
+                    .build();
+        };
+    }
+
+    private static Cache criarCache() {
+        long tamanhoMb = getParametro("cache.tamanhoMb", TAMANHO_CACHE_MB_PADRAO);
+        if (tamanhoMb == 0) {
+            log.info("Cache das consultas à Open Library desabilitado");
+            return null;
+        }
+
+        String diretorio = System.getProperty("openlibrary.cache.diretorio");
+        File arquivo = new File(isBlank(diretorio) ? DIRETORIO_CACHE_PADRAO : diretorio.trim());
+        log.info("Cache das consultas à Open Library em {} (máximo {} MB)", arquivo.getAbsolutePath(), tamanhoMb);
+        return new Cache(arquivo, tamanhoMb * 1024 * 1024);
+    }
+
+    private static ObjectMapper criarObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.addHandler(new DeserializationProblemHandler() {
+            @Override
+            public Object handleWeirdStringValue(DeserializationContext ctxt, Class<?> targetType, String valueToConvert, String failureMsg) throws IOException {
+                if (targetType != LocalDate.class || isBlank(valueToConvert)) {
+                    return super.handleWeirdStringValue(ctxt, targetType, valueToConvert, failureMsg);
+                }
+                log.warn("A data '{}' é inválida para o campo '{}'. Atributo será ignorado.", valueToConvert, ctxt.getParser().currentName());
+                return null;
+            }
+        });
+        return objectMapper;
+    }
+
+    private static ConfiguracaoOpenLibraryDto lerConfiguracao() {
+        ConfiguracaoOpenLibraryDto padrao = ConfiguracaoOpenLibraryDto.builder().build();
+        return ConfiguracaoOpenLibraryDto.builder()
+                .timeoutConexaoMs(getParametro("timeout.conexaoMs", padrao.getTimeoutConexaoMs()))
+                .timeoutLeituraMs(getParametro("timeout.leituraMs", padrao.getTimeoutLeituraMs()))
+                .timeoutConsultaMs(getParametro("timeout.consultaMs", padrao.getTimeoutConsultaMs()))
+                .validadeLivrosSegundos(TimeUnit.HOURS.toSeconds(getParametro("cache.validadeLivrosHoras",
+                        TimeUnit.SECONDS.toHours(padrao.getValidadeLivrosSegundos()))))
+                .validadeAutoresSegundos(TimeUnit.HOURS.toSeconds(getParametro("cache.validadeAutoresHoras",
+                        TimeUnit.SECONDS.toHours(padrao.getValidadeAutoresSegundos()))))
+                .requisicoesPorMinuto(getParametro("limite.requisicoesPorMinuto", padrao.getRequisicoesPorMinuto()))
+                .rajadaRequisicoes(Math.max(1, getParametro("limite.rajada", padrao.getRajadaRequisicoes())))
+                .maximoRetentativas(getParametro("retentativa.maximo", padrao.getMaximoRetentativas()))
+                .esperaInicialRetentativaMs(getParametro("retentativa.esperaInicialMs", padrao.getEsperaInicialRetentativaMs()))
+                .esperaMaximaRetentativaMs(getParametro("retentativa.esperaMaximaMs", padrao.getEsperaMaximaRetentativaMs()))
+                .falhasAbrirCircuito(getParametro("circuito.falhas", padrao.getFalhasAbrirCircuito()))
+                .tempoCircuitoAbertoMs(getParametro("circuito.tempoAbertoMs", padrao.getTempoCircuitoAbertoMs()))
+                .build();
+    }
+
+    /**
+     * Lê o parâmetro openlibrary.[nome] da JVM. Se for inválido ou não achar, usa o padrão
+     */
+    private static long getParametro(String nome, long padrao) {
+        String valor = System.getProperty("openlibrary." + nome);
+        if (isBlank(valor)) {
+            return padrao;
+        }
+
+        try {
+            long numero = Long.parseLong(valor.trim());
+            return numero >= 0 ? numero : padrao;
+        } catch (NumberFormatException e) {
+            log.warn("Valor inválido para openlibrary.{}: '{}'. Será usado o padrão: {}", nome, valor, padrao);
+            return padrao;
+        }
+    }
+}
@@ -1,12 +1,8 @@
 package com.biblioteca.catalogo.mapper;
 
-import com.biblioteca.catalogo.dto.AutorDto;
-import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.dto.LivroDto;
 import com.biblioteca.catalogo.entity.Livro;
 
-import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -44,18 +40,4 @@ public final class LivroMapper {
                 .build();
     }
 
-    public static LivroDto arrayToLivroDto(Object[] dadosLivro) {
-        int idx = 0;
-
-        return LivroDto
-                .builder()
-                .livroId((Long) dadosLivro[idx++])
-                .titulo((String) dadosLivro[idx++])
-                .autores((List<AutorDto>) dadosLivro[idx++])
-                .dataPublicacao((LocalDate) dadosLivro[idx++])
-                .isbn((Long) dadosLivro[idx++])
-                .editora((EditoraDto) dadosLivro[idx++])
-                .build();
-    }
-
 }
@@ -0,0 +1,365 @@
+package com.biblioteca.catalogo.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Índice invertido em memória, que relaciona cada palavra dos textos indexados aos documentos (ex.: livros) onde ela
+ * aparece. Permite buscar documentos por partes de palavras sem consultar o banco.
+ * <br>
+ * As palavras são normalizadas (maiúsculas e sem acentos) e cada uma guarda a lista ordenada dos IDs dos documentos
+ * em um array de int. Na busca, cada palavra do termo precisa aparecer em algum texto do documento:
+ * <br>- Com menos de {@value #TAMANHO_NGRAMA} caracteres, é comparada com o início das palavras indexadas
+ * <br>- Com {@value #TAMANHO_NGRAMA} ou mais, pode aparecer em qualquer parte da palavra. As palavras candidatas são
+ * encontradas pelos seus n-gramas (trechos de {@value #TAMANHO_NGRAMA} caracteres), sem percorrer todo o dicionário
+ * <br>
+ * É thread-safe: as buscas podem ser feitas em paralelo e as alterações bloqueiam as buscas apenas durante a
+ * atualização de um documento.
+ */
+public class IndiceInvertido {
+
+    private static final int TAMANHO_NGRAMA = 3;
+    private static final Pattern SEPARADOR_PALAVRAS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Dicionário ordenado, usado na busca por prefixo: palavra -> ID da palavra
+     */
+    private final TreeMap<String, Integer> idsPalavras = new TreeMap<>();
+    private final List<String> palavras = new ArrayList<>();
+    private final List<ListaInteiros> documentosPorPalavra = new ArrayList<>();
+    private final Map<String, ListaInteiros> palavrasPorNgrama = new HashMap<>();
+    private final Map<Integer, int[]> palavrasPorDocumento = new HashMap<>();
+
+    /**
+     * Indexa um documento. Caso ele já esteja no índice, os textos anteriores são substituídos.
+     *
+     * @param documentoId ID do documento
+     * @param textos      Textos do documento (valores nulos são ignorados)
+     */
+    public void indexar(int documentoId, Collection<String> textos) {
+        Set<String> palavrasDocumento = new HashSet<>();
+        textos.stream()
+                .filter(Objects::nonNull)
+                .forEach(texto -> palavrasDocumento.addAll(extrairPalavras(texto)));
+
+        lock.writeLock().lock();
+        try {
+            removerDocumento(documentoId);
+
+            int[] ids = new int[palavrasDocumento.size()];
+            int i = 0;
+            for (String palavra : palavrasDocumento) {
+                int palavraId = buscarOuCriarPalavra(palavra);
+                documentosPorPalavra.get(palavraId).inserirOrdenado(documentoId);
+                ids[i++] = palavraId;
+            }
+            palavrasPorDocumento.put(documentoId, ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um documento do índice
+     *
+     * @param documentoId ID do documento
+     */
+    public void remover(int documentoId) {
+        lock.writeLock().lock();
+        try {
+            removerDocumento(documentoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove todos os documentos e palavras do índice
+     */
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            idsPalavras.clear();
+            palavras.clear();
+            documentosPorPalavra.clear();
+            palavrasPorNgrama.clear();
+            palavrasPorDocumento.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os documentos que possuem todas as palavras do termo (ver regras de comparação na descrição da classe)
+     *
+     * @param termo Termo a ser buscado
+     * @return IDs dos documentos encontrados, em ordem crescente. Vazio caso o termo não possua nenhuma palavra
+     */
+    public int[] buscar(String termo) {
+        List<String> palavrasTermo = extrairPalavras(termo);
+        if (palavrasTermo.isEmpty()) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            List<List<ListaInteiros>> documentosPorPalavraTermo = new ArrayList<>();
+            for (String palavra : palavrasTermo) {
+                List<ListaInteiros> documentos = buscarDocumentosPalavra(palavra);
+                if (documentos.isEmpty()) {
+                    return new int[0];
+                }
+                documentosPorPalavraTermo.add(documentos);
+            }
+
+            // começa pela palavra com menos documentos, reduzindo o tamanho das interseções seguintes
+            documentosPorPalavraTermo.sort(Comparator.comparingInt(IndiceInvertido::contarDocumentos));
+
+            int[] resultado = unir(documentosPorPalavraTermo.get(0));
+            for (int i = 1; i < documentosPorPalavraTermo.size() && resultado.length > 0; i++) {
+                resultado = intersectar(resultado, documentosPorPalavraTermo.get(i));
+            }
+
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade de documentos indexados
+     */
+    public int getQuantidadeDocumentos() {
+        lock.readLock().lock();
+        try {
+            return palavrasPorDocumento.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Separa o texto em palavras normalizadas: sem acentos, em maiúsculas e sem pontuação
+     */
+    private static List<String> extrairPalavras(String texto) {
+        if (isNull(texto)) {
+            return Collections.emptyList();
+        }
+
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        List<String> resultado = new ArrayList<>();
+        for (String palavra : SEPARADOR_PALAVRAS.split(normalizado.toUpperCase(Locale.ROOT))) {
+            if (!palavra.isEmpty() && !resultado.contains(palavra)) {
+                resultado.add(palavra);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna as listas de documentos das palavras indexadas que combinam com a palavra do termo
+     */
+    private List<ListaInteiros> buscarDocumentosPalavra(String palavra) {
+        List<ListaInteiros> documentos = new ArrayList<>();
+
+        if (palavra.length() < TAMANHO_NGRAMA) {
+            for (Integer palavraId : idsPalavras.subMap(palavra, palavra + Character.MAX_VALUE).values()) {
+                adicionarSePossuirDocumentos(documentos, palavraId);
+            }
+            return documentos;
+        }
+
+        ListaInteiros candidatas = null;
+        for (String ngrama : extrairNgramas(palavra)) {
+            ListaInteiros palavrasNgrama = palavrasPorNgrama.get(ngrama);
+            if (isNull(palavrasNgrama)) {
+                return documentos;
+            }
+            if (isNull(candidatas) || palavrasNgrama.tamanho < candidatas.tamanho) {
+                candidatas = palavrasNgrama;
+            }
+        }
+
+        for (int i = 0; nonNull(candidatas) && i < candidatas.tamanho; i++) {
+            int palavraId = candidatas.valores[i];
+            if (palavras.get(palavraId).contains(palavra)) {
+                adicionarSePossuirDocumentos(documentos, palavraId);
+            }
+        }
+        return documentos;
+    }
+
+    private void adicionarSePossuirDocumentos(List<ListaInteiros> documentos, int palavraId) {
+        ListaInteiros lista = documentosPorPalavra.get(palavraId);
+        if (lista.tamanho > 0) {
+            documentos.add(lista);
+        }
+    }
+
+    private int buscarOuCriarPalavra(String palavra) {
+        Integer palavraId = idsPalavras.get(palavra);
+        if (nonNull(palavraId)) {
+            return palavraId;
+        }
+
+        int novoId = palavras.size();
+        idsPalavras.put(palavra, novoId);
+        palavras.add(palavra);
+        documentosPorPalavra.add(new ListaInteiros());
+
+        // os IDs das palavras são crescentes, então as listas dos n-gramas continuam ordenadas
+        for (String ngrama : extrairNgramas(palavra)) {
+            palavrasPorNgrama.computeIfAbsent(ngrama, n -> new ListaInteiros()).adicionar(novoId);
+        }
+        return novoId;
+    }
+
+    private void removerDocumento(int documentoId) {
+        int[] ids = palavrasPorDocumento.remove(documentoId);
+        if (isNull(ids)) {
+            return;
+        }
+
+        for (int palavraId : ids) {
+            documentosPorPalavra.get(palavraId).remover(documentoId);
+        }
+    }
+
+    private static Set<String> extrairNgramas(String palavra) {
+        Set<String> ngramas = new HashSet<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= palavra.length(); i++) {
+            ngramas.add(palavra.substring(i, i + TAMANHO_NGRAMA));
+        }
+        return ngramas;
+    }
+
+    private static int contarDocumentos(List<ListaInteiros> listas) {
+        int total = 0;
+        for (ListaInteiros lista : listas) {
+            total += lista.tamanho;
+        }
+        return total;
+    }
+
+    /**
+     * @return IDs dos documentos de todas as listas, ordenados e sem repetição
+     */
+    private static int[] unir(List<ListaInteiros> listas) {
+        if (listas.size() == 1) {
+            ListaInteiros lista = listas.get(0);
+            return Arrays.copyOf(lista.valores, lista.tamanho);
+        }
+
+        int[] documentos = new int[contarDocumentos(listas)];
+        int posicao = 0;
+        for (ListaInteiros lista : listas) {
+            System.arraycopy(lista.valores, 0, documentos, posicao, lista.tamanho);
+            posicao += lista.tamanho;
+        }
+        Arrays.sort(documentos);
+
+        int tamanho = 0;
+        for (int i = 0; i < documentos.length; i++) {
+            if (tamanho == 0 || documentos[tamanho - 1] != documentos[i]) {
+                documentos[tamanho++] = documentos[i];
+            }
+        }
+        return Arrays.copyOf(documentos, tamanho);
+    }
+
+    /**
+     * Mantém apenas os documentos que estão em alguma das listas.
+     * <br>
+     * Quando há poucos documentos, cada um é procurado nas listas por busca binária, sem percorrer listas grandes
+     * (ex.: uma palavra presente em quase todos os livros). Caso contrário, as listas são unidas e intersectadas.
+     */
+    private static int[] intersectar(int[] documentos, List<ListaInteiros> listas) {
+        int[] resultado = new int[documentos.length];
+        int tamanho = 0;
+
+        if ((long) documentos.length * listas.size() <= contarDocumentos(listas)) {
+            for (int documento : documentos) {
+                for (ListaInteiros lista : listas) {
+                    if (Arrays.binarySearch(lista.valores, 0, lista.tamanho, documento) >= 0) {
+                        resultado[tamanho++] = documento;
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(resultado, tamanho);
+        }
+
+        int[] outros = unir(listas);
+        for (int i = 0, j = 0; i < documentos.length && j < outros.length; ) {
+            if (documentos[i] < outros[j]) {
+                i++;
+            } else if (documentos[i] > outros[j]) {
+                j++;
+            } else {
+                resultado[tamanho++] = documentos[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+
+    /**
+     * Lista ordenada de int, sem valores repetidos, guardada em um array primitivo
+     */
+    private static class ListaInteiros {
+        private int[] valores = new int[2];
+        private int tamanho;
+
+        /**
+         * Adiciona no fim da lista. Usado quando o valor é maior que todos os existentes.
+         */
+        private void adicionar(int valor) {
+            garantirCapacidade();
+            valores[tamanho++] = valor;
+        }
+
+        private void inserirOrdenado(int valor) {
+            if (tamanho == 0 || valores[tamanho - 1] < valor) {
+                adicionar(valor);
+                return;
+            }
+
+            int posicao = Arrays.binarySearch(valores, 0, tamanho, valor);
+            if (posicao >= 0) {
+                return;
+            }
+
+            posicao = -posicao - 1;
+            garantirCapacidade();
+            System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+            valores[posicao] = valor;
+            tamanho++;
+        }
+
+        private void remover(int valor) {
+            int posicao = Arrays.binarySearch(valores, 0, tamanho, valor);
+            if (posicao < 0) {
+                return;
+            }
+
+            System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+            tamanho--;
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, valores.length + (valores.length >> 1) + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.biblioteca.catalogo.search;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos ISBNs cadastrados, relacionando cada ISBN ao ID do seu livro. Permite verificar se um ISBN já
+ * está cadastrado sem consultar o banco.
+ * <br>
+ * Os pares são guardados em tabelas hash de endereçamento aberto (sondagem linear) com arrays de long, sem criar um
+ * objeto por registro: uma de ISBN para ID e outra de ID para ISBN, usada para descartar o ISBN anterior quando o
+ * ISBN de um livro é alterado e ao remover o livro. Cada tabela ocupa 16 bytes por posição e mantém no máximo metade
+ * das posições ocupadas (cerca de 50 MB para 1 milhão de livros, somando as duas).
+ * <br>
+ * É thread-safe: as consultas podem ser feitas em paralelo e as alterações bloqueiam as consultas apenas durante a
+ * atualização de um livro.
+ */
+public class IndiceIsbn {
+
+    /**
+     * Retornado por {@link #buscarLivroId(long)} quando o ISBN não está no índice
+     */
+    public static final long NAO_ENCONTRADO = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MapaLongos idsPorIsbn = new MapaLongos();
+    private final MapaLongos isbnsPorId = new MapaLongos();
+
+    /**
+     * Adiciona ou atualiza o ISBN de um livro. Caso o livro possuísse outro ISBN, o anterior é removido.
+     *
+     * @param isbn    ISBN do livro
+     * @param livroId ID do livro
+     */
+    public void adicionar(long isbn, long livroId) {
+        if (isbn < 0 || livroId < 0) {
+            throw new IllegalArgumentException("O ISBN e o ID do livro não podem ser negativos");
+        }
+
+        lock.writeLock().lock();
+        try {
+            long isbnAnterior = isbnsPorId.buscar(livroId);
+            if (isbnAnterior != NAO_ENCONTRADO && isbnAnterior != isbn) {
+                idsPorIsbn.remover(isbnAnterior);
+            }
+
+            long livroAnterior = idsPorIsbn.buscar(isbn);
+            if (livroAnterior != NAO_ENCONTRADO && livroAnterior != livroId) {
+                isbnsPorId.remover(livroAnterior);
+            }
+
+            idsPorIsbn.colocar(isbn, livroId);
+            isbnsPorId.colocar(livroId, isbn);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove o ISBN de um livro do índice
+     *
+     * @param livroId ID do livro
+     */
+    public void removerLivro(long livroId) {
+        lock.writeLock().lock();
+        try {
+            long isbn = isbnsPorId.remover(livroId);
+            if (isbn != NAO_ENCONTRADO) {
+                idsPorIsbn.remover(isbn);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param isbn ISBN a ser buscado
+     * @return ID do livro com o ISBN, ou {@link #NAO_ENCONTRADO} caso o ISBN não esteja no índice
+     */
+    public long buscarLivroId(long isbn) {
+        lock.readLock().lock();
+        try {
+            return idsPorIsbn.buscar(isbn);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            idsPorIsbn.limpar();
+            isbnsPorId.limpar();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade de ISBNs no índice
+     */
+    public int getQuantidade() {
+        lock.readLock().lock();
+        try {
+            return idsPorIsbn.tamanho;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tabela hash de long para long com endereçamento aberto. As chaves e valores não podem ser negativos: a posição
+     * livre é marcada com uma chave negativa, e {@link #NAO_ENCONTRADO} indica a ausência do valor.
+     * <br>
+     * Na remoção, os registros seguintes da mesma sequência são deslocados para trás, então não são deixadas marcas de
+     * remoção e as buscas não ficam mais lentas com o tempo.
+     */
+    private static final class MapaLongos {
+
+        private static final int CAPACIDADE_INICIAL = 1024;
+        private static final long LIVRE = Long.MIN_VALUE;
+
+        private long[] chaves;
+        private long[] valores;
+        private int mascara;
+        private int tamanho;
+
+        MapaLongos() {
+            alocar(CAPACIDADE_INICIAL);
+        }
+
+        long buscar(long chave) {
+            for (int i = posicaoIdeal(chave); ; i = (i + 1) & mascara) {
+                if (chaves[i] == chave) {
+                    return valores[i];
+                }
+                if (chaves[i] == LIVRE) {
+                    return NAO_ENCONTRADO;
+                }
+            }
+        }
+
+        void colocar(long chave, long valor) {
+            int i = posicaoIdeal(chave);
+            while (chaves[i] != LIVRE && chaves[i] != chave) {
+                i = (i + 1) & mascara;
+            }
+
+            if (chaves[i] == LIVRE) {
+                chaves[i] = chave;
+                tamanho++;
+            }
+            valores[i] = valor;
+
+            // mantém no máximo metade das posições ocupadas, para que as sequências fiquem curtas
+            if (tamanho * 2 > chaves.length) {
+                redimensionar(chaves.length * 2);
+            }
+        }
+
+        /**
+         * @return Valor removido, ou {@link #NAO_ENCONTRADO} caso a chave não exista
+         */
+        long remover(long chave) {
+            int i = posicaoIdeal(chave);
+            while (chaves[i] != chave) {
+                if (chaves[i] == LIVRE) {
+                    return NAO_ENCONTRADO;
+                }
+                i = (i + 1) & mascara;
+            }
+            long valor = valores[i];
+
+            // desloca para a posição livre os registros seguintes cuja posição ideal não esteja entre ela e eles
+            int livre = i;
+            for (int j = (i + 1) & mascara; chaves[j] != LIVRE; j = (j + 1) & mascara) {
+                int distanciaIdeal = (j - posicaoIdeal(chaves[j])) & mascara;
+                if (distanciaIdeal >= ((j - livre) & mascara)) {
+                    chaves[livre] = chaves[j];
+                    valores[livre] = valores[j];
+                    livre = j;
+                }
+            }
+            chaves[livre] = LIVRE;
+            tamanho--;
+            return valor;
+        }
+
+        void limpar() {
+            alocar(CAPACIDADE_INICIAL);
+        }
+
+        private int posicaoIdeal(long chave) {
+            long hash = chave * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mascara;
+        }
+
+        private void redimensionar(int capacidade) {
+            long[] chavesAnteriores = chaves;
+            long[] valoresAnteriores = valores;
+
+            alocar(capacidade);
+            for (int i = 0; i < chavesAnteriores.length; i++) {
+                if (chavesAnteriores[i] != LIVRE) {
+                    colocar(chavesAnteriores[i], valoresAnteriores[i]);
+                }
+            }
+        }
+
+        private void alocar(int capacidade) {
+            chaves = new long[capacidade];
+            Arrays.fill(chaves, LIVRE);
+            valores = new long[capacidade];
+            mascara = capacidade - 1;
+            tamanho = 0;
+        }
+    }
+}
@@ -1,34 +1,67 @@
 package com.biblioteca.catalogo.service;
 
+import com.biblioteca.catalogo.cache.CacheLru;
 import com.biblioteca.catalogo.database.dao.AutorDAO;
 import com.biblioteca.catalogo.dto.AutorDto;
 import com.biblioteca.catalogo.entity.Autor;
 import com.biblioteca.catalogo.mapper.AutorMapper;
 
+import java.util.Locale;
+
+import static java.util.Objects.nonNull;
+
 public class AutorService {
 
+    private static final int TAMANHO_CACHE = 10_000;
+
     private final AutorDAO autorDAO;
+    private final CacheLru<String, AutorDto> cache = new CacheLru<>(TAMANHO_CACHE);
 
     public AutorService() {
         autorDAO = new AutorDAO();
     }
 
+    public AutorService(AutorDAO autorDAO) {
+        this.autorDAO = autorDAO;
+    }
+
     /**
      * Busca um autor pelo nome. Se não encontrar, cria um registro.
+     * <br>
+     * Os autores já buscados ou criados ficam em cache, evitando consultar o banco para o mesmo nome várias vezes. Assim
+     * como na busca no banco, maiúsculas e minúsculas são ignoradas, e o autor é retornado com o nome cadastrado.
      *
      * @param nome do Autor
      * @return @{@link AutorDto} encontrado ou criado
      */
     public AutorDto buscarOuCriarPorNome(String nome) {
+        String chave = nome.toUpperCase(Locale.ROOT);
+        AutorDto emCache = cache.buscar(chave).orElse(null);
+        if (nonNull(emCache)) {
+            return AutorDto.builder()
+                    .autorId(emCache.getAutorId())
+                    .nome(emCache.getNome())
+                    .build();
+        }
+
         Autor autor = autorDAO.buscarPorNome(nome)
                 .orElseGet(() -> autorDAO.save(Autor.builder()
                         .nome(nome)
                         .build()));
 
+        cache.adicionar(chave, AutorMapper.entidadeParaDto(autor));
         return AutorMapper.entidadeParaDto(autor);
     }
 
-     public void deletarAutorPorID(Long id) {
+    public void deletarAutorPorID(Long id) {
         autorDAO.deleteById(id);
+        cache.removerSe(autor -> id.equals(autor.getAutorId()));
+    }
+
+    /**
+     * @return Cache por nome, para consulta dos acertos e falhas
+     */
+    public CacheLru<String, AutorDto> getCache() {
+        return cache;
     }
 }
@@ -1,33 +1,66 @@
 package com.biblioteca.catalogo.service;
 
+import com.biblioteca.catalogo.cache.CacheLru;
 import com.biblioteca.catalogo.database.dao.EditoraDAO;
 import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.entity.Editora;
 import com.biblioteca.catalogo.mapper.EditoraMapper;
 
+import java.util.Locale;
+
+import static java.util.Objects.nonNull;
+
 public class EditoraService {
 
+    private static final int TAMANHO_CACHE = 1_000;
+
     private final EditoraDAO editoraDAO;
+    private final CacheLru<String, EditoraDto> cache = new CacheLru<>(TAMANHO_CACHE);
 
     public EditoraService() {
         this.editoraDAO = new EditoraDAO();
     }
 
+    public EditoraService(EditoraDAO editoraDAO) {
+        this.editoraDAO = editoraDAO;
+    }
+
     /**
      * Busca uma editora pelo nome. Se não encontrar, cria um registro.
+     * <br>
+     * As editoras já buscadas ou criadas ficam em cache, evitando consultar o banco para o mesmo nome várias vezes. Assim
+     * como na busca no banco, maiúsculas e minúsculas são ignoradas, e a editora é retornada com o nome cadastrado.
      * @param nome da Editora
      * @return @{@link EditoraDto} encontrada ou criada
      */
     public EditoraDto buscarOuCriarPorNome(String nome) {
+        String chave = nome.toUpperCase(Locale.ROOT);
+        EditoraDto emCache = cache.buscar(chave).orElse(null);
+        if (nonNull(emCache)) {
+            return EditoraDto.builder()
+                    .editoraId(emCache.getEditoraId())
+                    .nome(emCache.getNome())
+                    .build();
+        }
+
         Editora editora = editoraDAO.buscarPorNome(nome)
                 .orElseGet(() -> editoraDAO.save(Editora.builder()
                         .nome(nome)
                         .build()));
 
+        cache.adicionar(chave, EditoraMapper.entidadeParaDto(editora));
         return EditoraMapper.entidadeParaDto(editora);
     }
 
     public void deletarEditoraPorID(Long editoraId) {
         editoraDAO.deleteById(editoraId);
+        cache.removerSe(editora -> editoraId.equals(editora.getEditoraId()));
+    }
+
+    /**
+     * @return Cache por nome, para consulta dos acertos e falhas
+     */
+    public CacheLru<String, EditoraDto> getCache() {
+        return cache;
     }
 }
@@ -1,68 +1,196 @@
 package com.biblioteca.catalogo.service;
 
+import com.biblioteca.catalogo.csv.DecodificadorCampos;
+import com.biblioteca.catalogo.csv.DivisorTrechosCsv;
+import com.biblioteca.catalogo.csv.LeitorCsvMapeado;
+import com.biblioteca.catalogo.csv.TrechoCsv;
 import com.biblioteca.catalogo.dto.AutorDto;
 import com.biblioteca.catalogo.dto.DadosImportacaoCsvDto;
 import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.dto.LivroDto;
 import com.biblioteca.catalogo.exception.ImportacaoCsvException;
+import lombok.Data;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Slf4j
 public class LivroCsvService {
     private static final String SEPARADOR_AUTORES = ";";
-    private static final DateTimeFormatter FORMATADOR_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final long TAMANHO_TRECHO = 4L * 1024 * 1024;
+    private static final long TAMANHO_MINIMO_LEITURA_PARALELA = 2 * TAMANHO_TRECHO;
+    private static final String PROPRIEDADE_VALIDAR_ISBN = "importacao.validarIsbn";
 
     /**
      * Lê um CSV e transforma em dados de importação
      *
      * @param arquivo Arquivo CSV para leitura
      * @return Um {@link DadosImportacaoCsvDto} com dados da importação
+     * @see #processarCSV(File, Consumer, Consumer)
      */
     public DadosImportacaoCsvDto processarCSV(File arquivo) {
         DadosImportacaoCsvDto resultado = new DadosImportacaoCsvDto();
+        processarCSV(arquivo, resultado.getLivrosImportados()::add, resultado.getErros()::add);
+        return resultado;
+    }
+
+    /**
+     * Lê um CSV registro a registro, repassando cada livro e cada erro assim que são lidos, sem acumular os dados em memória.
+     * <br>
+     * Permite que arquivos de qualquer tamanho sejam importados com consumo de memória constante. Arquivos grandes são
+     * lidos em paralelo (ver {@link #processarCSVParalelo(File, Consumer, Consumer)}).
+     *
+     * @param arquivo         Arquivo CSV para leitura
+     * @param aoLerLivro      Ação executada para cada livro lido com sucesso
+     * @param aoEncontrarErro Ação executada para cada linha com erro, recebendo a mensagem já formatada com o número da linha
+     */
+    public void processarCSV(File arquivo, Consumer<LivroDto> aoLerLivro, Consumer<String> aoEncontrarErro) {
+        if (arquivo.length() >= TAMANHO_MINIMO_LEITURA_PARALELA && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            processarCSVParalelo(arquivo, aoLerLivro, aoEncontrarErro);
+            return;
+        }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(arquivo))) {
-            String linha;
-            int numeroLinha = 0;
-            boolean primeiraLinha = true;
+        boolean validarIsbn = isValidarIsbn();
 
-            while ((linha = reader.readLine()) != null) {
-                if (linha.trim().isEmpty()) {
-                    continue;
-                }
-                numeroLinha++;
+        try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+            PosicaoLeitura posicao = new PosicaoLeitura();
+            for (TrechoCsv trecho : DivisorTrechosCsv.dividir(canal, TAMANHO_TRECHO, ForkJoinPool.commonPool())) {
+                ResultadoTrecho resultado = processarTrecho(canal, trecho, validarIsbn);
+                repassarResultado(resultado, posicao, aoLerLivro, aoEncontrarErro);
+            }
 
-                if (primeiraLinha && isLinhaCabecalho(linha)) {
-                    primeiraLinha = false;
-                    continue;
-                }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Erro ao ler arquivo", e);
+        }
+    }
+
+    /**
+     * Lê um CSV usando todos os núcleos disponíveis.
+     * <br>
+     * O arquivo é dividido em trechos alinhados aos registros (ver {@link DivisorTrechosCsv}), que são processados em
+     * paralelo no {@link ForkJoinPool#commonPool()}. Os livros e erros são repassados na ordem do arquivo, na thread que
+     * chamou o método, e os números de linha das mensagens de erro são os mesmos da leitura sequencial.
+     * <br>
+     * Apenas alguns trechos ficam em memória por vez, então o consumo de memória continua limitado.
+     *
+     * @param arquivo         Arquivo CSV para leitura
+     * @param aoLerLivro      Ação executada para cada livro lido com sucesso
+     * @param aoEncontrarErro Ação executada para cada linha com erro, recebendo a mensagem já formatada com o número da linha
+     */
+    public void processarCSVParalelo(File arquivo, Consumer<LivroDto> aoLerLivro, Consumer<String> aoEncontrarErro) {
+        processarCSVParalelo(arquivo, TAMANHO_TRECHO, aoLerLivro, aoEncontrarErro);
+    }
 
-                try {
-                    resultado.getLivrosImportados().add(processarLinha(linha));
-                } catch (ImportacaoCsvException e) {
-                    log.error("Erro ao processar linha {}: {}", numeroLinha, e.getMessage());
-                    resultado.getErros().add(String.format("Linha %d: %s", numeroLinha, e.getMessage()));
+    void processarCSVParalelo(File arquivo, long tamanhoTrecho, Consumer<LivroDto> aoLerLivro, Consumer<String> aoEncontrarErro) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maximoEmExecucao = pool.getParallelism() * 2;
+        boolean validarIsbn = isValidarIsbn();
+
+        try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+            Iterator<TrechoCsv> trechos = DivisorTrechosCsv.dividir(canal, tamanhoTrecho, pool).iterator();
+            Deque<ForkJoinTask<ResultadoTrecho>> emExecucao = new ArrayDeque<>();
+            PosicaoLeitura posicao = new PosicaoLeitura();
+
+            while (trechos.hasNext() || !emExecucao.isEmpty()) {
+                while (trechos.hasNext() && emExecucao.size() < maximoEmExecucao) {
+                    TrechoCsv trecho = trechos.next();
+                    emExecucao.add(pool.submit(() -> processarTrecho(canal, trecho, validarIsbn)));
                 }
 
-                primeiraLinha = false;
+                ResultadoTrecho resultado = emExecucao.poll().join();
+                repassarResultado(resultado, posicao, aoLerLivro, aoEncontrarErro);
             }
 
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             log.error("Erro ao ler arquivo", e);
         }
+    }
+
+    /**
+     * Repassa os livros e erros de um trecho, numerando as linhas a partir da quantidade de linhas dos trechos
+     * anteriores. A numeração é a das linhas do arquivo, então um registro com quebras de linha entre aspas ocupa mais de
+     * uma linha. O cabeçalho só é ignorado se for o primeiro registro do arquivo.
+     *
+     * @param resultado       Resultado do processamento do trecho
+     * @param posicao         Registros e linhas dos trechos anteriores, atualizados com os deste trecho
+     * @param aoLerLivro      Ação executada para cada livro lido com sucesso
+     * @param aoEncontrarErro Ação executada para cada linha com erro
+     */
+    private void repassarResultado(ResultadoTrecho resultado, PosicaoLeitura posicao, Consumer<LivroDto> aoLerLivro, Consumer<String> aoEncontrarErro) {
+        for (ItemTrecho item : resultado.getItens()) {
+            if (posicao.getRegistros() == 0 && item.getIndice() == 0 && resultado.isPrimeiroRegistroCabecalho()) {
+                continue;
+            }
+
+            int numeroLinha = posicao.getLinhas() + item.getLinha() + 1;
+            if (nonNull(item.getLivro())) {
+                aoLerLivro.accept(item.getLivro());
+            } else {
+                log.error("Erro ao processar linha {}: {}", numeroLinha, item.getErro());
+                aoEncontrarErro.accept(String.format("Linha %d: %s", numeroLinha, item.getErro()));
+            }
+        }
+
+        posicao.setRegistros(posicao.getRegistros() + resultado.getQuantidadeRegistros());
+        posicao.setLinhas(posicao.getLinhas() + resultado.getQuantidadeLinhas());
+    }
+
+    /**
+     * Processa os registros de um trecho do arquivo, lendo direto da memória mapeada (ver {@link LeitorCsvMapeado}). Os
+     * registros e linhas são numerados a partir do início do trecho, já que a quantidade de registros e linhas dos
+     * trechos anteriores ainda não é conhecida.
+     *
+     * @param canal       Canal do arquivo CSV
+     * @param trecho      Trecho a ser processado
+     * @param validarIsbn Indica se o dígito verificador do ISBN deve ser validado
+     * @return Um {@link ResultadoTrecho} com os livros e erros do trecho
+     */
+    private ResultadoTrecho processarTrecho(FileChannel canal, TrechoCsv trecho, boolean validarIsbn) {
+        ResultadoTrecho resultado = new ResultadoTrecho();
+        if (trecho.getTamanho() == 0) {
+            return resultado;
+        }
+
+        LeitorCsvMapeado registro;
+        try {
+            registro = new LeitorCsvMapeado(canal, trecho, Charset.defaultCharset());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        while (registro.proximoRegistro()) {
+            resultado.setQuantidadeLinhas(registro.getLinhasLidas());
+            if (registro.isRegistroVazio()) {
+                continue;
+            }
+
+            int indice = resultado.getQuantidadeRegistros();
+            if (indice == 0) {
+                resultado.setPrimeiroRegistroCabecalho(isLinhaCabecalho(registro.getTextoRegistro()));
+            }
+            resultado.setQuantidadeRegistros(indice + 1);
+
+            try {
+                resultado.getItens().add(new ItemTrecho(indice, registro.getLinhaRegistro(), processarLinha(registro, validarIsbn), null));
+            } catch (ImportacaoCsvException e) {
+                resultado.getItens().add(new ItemTrecho(indice, registro.getLinhaRegistro(), null, e.getMessage()));
+            }
+        }
 
         return resultado;
     }
@@ -83,28 +211,27 @@ public class LivroCsvService {
     }
 
     /**
-     * Processa a linha atual, gerando dados do livro
+     * Processa o registro atual, gerando dados do livro
      *
-     * @param linha Linha atual a ser processada
-     * @return Um {@link LivroDto} com dados do livro gerados pela linha atual
+     * @param registro    Leitor posicionado no registro a ser processado
+     * @param validarIsbn Indica se o dígito verificador do ISBN deve ser validado
+     * @return Um {@link LivroDto} com dados do livro gerados pelo registro atual
      * @throws ImportacaoCsvException caso haja algum erro na geração do CSV
      */
-    private LivroDto processarLinha(String linha) throws ImportacaoCsvException {
-        List<String> campos = separaDadosLInha(linha);
-
-        if (campos.size() < 5) {
+    private LivroDto processarLinha(LeitorCsvMapeado registro, boolean validarIsbn) throws ImportacaoCsvException {
+        if (registro.getQuantidadeCampos() < 5) {
             throw new ImportacaoCsvException("Campo(s) não encontrado(s). Certifique-se de informar os campos: 'ISBN, Título, Editora, Data de Publicação, Autor'");
         }
 
-        if (campos.size() > 5) {
+        if (registro.getQuantidadeCampos() > 5) {
             throw new ImportacaoCsvException("Foram encontrados mais campos do que o necessário. Certifique-se de informar os apenas os campos: 'ISBN, Título, Editora, Data de Publicação, Autor'");
         }
 
-        Long isbn = extrairISBN(campos.get(0).trim());
-        String titulo = extrairCampoString(campos.get(1).trim(), "Título não encontrado");
-        String editora = extrairCampoString(campos.get(2).trim(), "Editora não encontrada");
-        LocalDate dataPublicacao = extrairDataPublicacao(campos.get(3));
-        List<AutorDto> autores = extrairAutores(campos.get(4).trim());
+        Long isbn = extrairISBN(registro, validarIsbn);
+        String titulo = extrairCampoString(registro.getCampoAparado(1), "Título não encontrado");
+        String editora = extrairCampoString(registro.getCampoAparado(2), "Editora não encontrada");
+        LocalDate dataPublicacao = extrairDataPublicacao(registro);
+        List<AutorDto> autores = extrairAutores(registro.getCampoAparado(4));
 
         if (autores.isEmpty()) {
             throw new ImportacaoCsvException("Pelo menos um autor deve ser informado");
@@ -122,70 +249,23 @@ public class LivroCsvService {
     }
 
     /**
-     * Separa os dados da linha atual em uma lista de Strings
+     * Converte o quarto campo do registro em um LocalDate, sem criar Strings para datas válidas
      *
-     * @param linha Linha atual sendo processada, todos os dados concatenados
-     * @return Uma lista com os dados separados
-     */
-    private List<String> separaDadosLInha(String linha) {
-        List<String> campos = new ArrayList<>();
-        StringBuilder campoAtual = new StringBuilder();
-        boolean dentroAspas = false;
-        boolean aspasEscapadas = false;
-
-        for (int i = 0; i < linha.length(); i++) {
-            char c = linha.charAt(i);
-
-            if (aspasEscapadas) {
-                campoAtual.append(c);
-                aspasEscapadas = false;
-                continue;
-            }
-
-            if (c == '"') {
-                if (dentroAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
-                    aspasEscapadas = true;
-                } else {
-                    dentroAspas = !dentroAspas;
-                }
-
-                continue;
-            }
-
-            if (c == ',' && !dentroAspas) {
-                campos.add(campoAtual.toString());
-                campoAtual = new StringBuilder();
-                continue;
-            }
-
-            campoAtual.append(c);
-        }
-
-        campos.add(campoAtual.toString());
-        return campos;
-    }
-
-    /**
-     * Tranforma a string com a data em um LocalDate
-     *
-     * @param strData String com a data. Formato aceito: 'dd/MM/yyyy'
+     * @param registro Leitor posicionado no registro atual. Formato aceito: 'dd/MM/yyyy'
      * @return Um {@link LocalDate} com a data
      * @throws ImportacaoCsvException Caso a data seja inválida
+     * @see DecodificadorCampos#decodificarData(CharSequence, int, int)
      */
-    private LocalDate extrairDataPublicacao(String strData) throws ImportacaoCsvException {
-        if (isBlank(strData)) {
+    private LocalDate extrairDataPublicacao(LeitorCsvMapeado registro) throws ImportacaoCsvException {
+        if (registro.isCampoVazio(3)) {
             throw new ImportacaoCsvException("Data de publicação não informada");
         }
 
-        LocalDate data;
-        try {
-            data = LocalDate.parse(strData, FORMATADOR_DATA);
-        } catch (DateTimeParseException ignored) {
-            data = null;
-        }
+        CharSequence campo = registro.getSequenciaCampo(3);
+        LocalDate data = DecodificadorCampos.decodificarData(campo, 0, campo.length());
 
         if (isNull(data)) {
-            String msg = String.format("Formato de data inválido: '%s'. Use dd/MM/yyyy", strData);
+            String msg = String.format("Formato de data inválido: '%s'. Use dd/MM/yyyy", registro.getCampo(3));
             throw new ImportacaoCsvException(msg);
         }
 
@@ -209,23 +289,34 @@ public class LivroCsvService {
     }
 
     /**
-     * Transforma a String recebida em um Long, representando o ISBN
+     * Converte o primeiro campo do registro em um Long, representando o ISBN. O campo é convertido direto dos bytes do
+     * arquivo, e uma String só é criada para a mensagem de erro
      *
-     * @param strISBN String contendo o ISBN
+     * @param registro    Leitor posicionado no registro atual
+     * @param validarIsbn Indica se o dígito verificador do ISBN-10/ISBN-13 deve ser validado
      * @return O ISBN do livro convertido para {@link Long}
      * @throws ImportacaoCsvException Caso o campo seja inválido
+     * @see DecodificadorCampos#decodificarIsbn(CharSequence, int, int, boolean)
      */
-    private Long extrairISBN(String strISBN) throws ImportacaoCsvException {
-        if (strISBN.isEmpty()) {
+    private Long extrairISBN(LeitorCsvMapeado registro, boolean validarIsbn) throws ImportacaoCsvException {
+        if (registro.isCampoVazio(0)) {
             throw new ImportacaoCsvException("ISBN não pode estar vazio");
         }
 
-        try {
-            return Long.parseLong(strISBN);
-        } catch (Exception e) {
-            String msg = String.format("ISBN '%s' não é um número válido", strISBN);
+        CharSequence campo = registro.getSequenciaCampo(0);
+        long isbn = DecodificadorCampos.decodificarIsbn(campo, 0, campo.length(), validarIsbn);
+
+        if (isbn == DecodificadorCampos.ISBN_INVALIDO) {
+            String msg = String.format("ISBN '%s' não é um número válido", registro.getCampoAparado(0));
+            throw new ImportacaoCsvException(msg);
+        }
+
+        if (isbn == DecodificadorCampos.ISBN_DIGITO_VERIFICADOR_INVALIDO) {
+            String msg = String.format("ISBN '%s' possui dígito verificador inválido", registro.getCampoAparado(0));
             throw new ImportacaoCsvException(msg);
         }
+
+        return isbn;
     }
 
     /**
@@ -263,4 +354,43 @@ public class LivroCsvService {
 
         return autores;
     }
+
+    /**
+     * Verifica o parâmetro importacao.validarIsbn da JVM. Desativado por padrão, já que muitos catálogos possuem
+     * ISBNs internos que não seguem o dígito verificador
+     */
+    private boolean isValidarIsbn() {
+        return Boolean.getBoolean(PROPRIEDADE_VALIDAR_ISBN);
+    }
+
+    /**
+     * Livros e erros lidos de um trecho do arquivo
+     */
+    @Data
+    private static class ResultadoTrecho {
+        private final List<ItemTrecho> itens = new ArrayList<>();
+        private int quantidadeRegistros;
+        private int quantidadeLinhas;
+        private boolean primeiroRegistroCabecalho;
+    }
+
+    /**
+     * Resultado do processamento de um registro. Possui o livro lido ou a mensagem de erro
+     */
+    @Value
+    private static class ItemTrecho {
+        int indice;
+        int linha;
+        LivroDto livro;
+        String erro;
+    }
+
+    /**
+     * Quantidade de registros e linhas já repassados, usada para numerar as linhas do trecho seguinte
+     */
+    @Data
+    private static class PosicaoLeitura {
+        private int registros;
+        private int linhas;
+    }
 }
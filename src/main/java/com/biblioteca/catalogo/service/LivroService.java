@@ -1,37 +1,57 @@
 package com.biblioteca.catalogo.service;
 
+import com.biblioteca.catalogo.database.dao.CancelamentoConsulta;
 import com.biblioteca.catalogo.database.dao.LivroDAO;
 import com.biblioteca.catalogo.dto.AutorDto;
 import com.biblioteca.catalogo.dto.DadosImportacaoCsvDto;
 import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.dto.PaginaDto;
+import com.biblioteca.catalogo.dto.ResultadoImportacaoDto;
 import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.DadosLivroResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.EditoraResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
 import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
 import com.biblioteca.catalogo.entity.Livro;
 import com.biblioteca.catalogo.exception.ApiExecutionException;
 import com.biblioteca.catalogo.exception.ConsultaLivroException;
 import com.biblioteca.catalogo.factory.LivroFactory;
 import com.biblioteca.catalogo.mapper.LivroMapper;
+import com.biblioteca.catalogo.search.IndiceInvertido;
+import com.biblioteca.catalogo.search.IndiceIsbn;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Slf4j
 @RequiredArgsConstructor
 public class LivroService {
 
+    private static final int TAMANHO_LOTE_PADRAO = 500;
+    private static final int TAMANHO_LOTE_COMPLETAR_DADOS = 100;
+    private static final long TEMPO_LIMITE_CONSULTA_AUTORES_MS = 15_000;
+
     private final LivroDAO livroDAO;
     private final LivroFactory livroFactory;
     private final AutorService autorService;
     private final EditoraService editoraService;
     private final LivroCsvService livroCsvService;
     private final OpenLibraryService openLibraryService;
+    private final IndiceInvertido indiceBusca;
+    private final IndiceIsbn indiceIsbn;
+
+    private volatile boolean indiceBuscaCarregado;
+    private volatile boolean indiceIsbnCarregado;
 
     public LivroService() {
         this.livroFactory = new LivroFactory();
@@ -40,6 +60,8 @@ public class LivroService {
         this.editoraService = new EditoraService();
         this.autorService = new AutorService();
         this.livroCsvService = new LivroCsvService();
+        this.indiceBusca = new IndiceInvertido();
+        this.indiceIsbn = new IndiceIsbn();
     }
 
     /**
@@ -62,21 +84,49 @@ public class LivroService {
             throw new ConsultaLivroException("Livro não encontrado");
         }
 
-        List<AutorResponseDto> autores = livro.getAuthors()
-                .stream()
-                .map(autor -> {
-                    try {
-                        return openLibraryService.buscarAutor(autor);
-                    } catch (ApiExecutionException e) {
-                        String msg = String.format("Ocorreu um erro ao buscar dados para o autor: %s", autor.getKey());
-                        log.error(msg, e);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
+        return livroFactory.montarLivroDto(isbn, livro, buscarAutoresApi(livro.getAuthors()));
+    }
+
+    /**
+     * Busca os autores na Open Library ao mesmo tempo, então o tempo total é o da consulta mais lenta, e não a soma
+     * de todas.
+     * <br>
+     * Os autores com erro ou que não retornarem em até {@value #TEMPO_LIMITE_CONSULTA_AUTORES_MS} ms são ignorados.
+     *
+     * @param chaves Chaves dos autores retornadas na consulta do livro
+     * @return Autores encontrados, na mesma ordem das chaves
+     */
+    private List<AutorResponseDto> buscarAutoresApi(List<KeyDto> chaves) {
+        List<CompletableFuture<AutorResponseDto>> consultas = chaves.stream()
+                .map(openLibraryService::buscarAutorAsync)
                 .collect(Collectors.toList());
 
-        return livroFactory.montarLivroDto(isbn, livro, autores);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TEMPO_LIMITE_CONSULTA_AUTORES_MS);
+        List<AutorResponseDto> autores = new ArrayList<>(chaves.size());
+        for (int i = 0; i < consultas.size(); i++) {
+            AutorResponseDto autor = aguardarAutor(consultas.get(i), chaves.get(i), limite);
+            if (nonNull(autor)) {
+                autores.add(autor);
+            }
+        }
+        return autores;
+    }
+
+    private AutorResponseDto aguardarAutor(CompletableFuture<AutorResponseDto> consulta, KeyDto chave, long limite) {
+        try {
+            return consulta.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("A consulta do autor {} excedeu o tempo limite de {} ms e será ignorada", chave.getKey(),
+                    TEMPO_LIMITE_CONSULTA_AUTORES_MS);
+        } catch (ExecutionException e) {
+            String msg = String.format("Ocorreu um erro ao buscar dados para o autor: %s", chave.getKey());
+            log.error(msg, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        consulta.cancel(true);
+        return null;
     }
 
     /**
@@ -85,10 +135,14 @@ public class LivroService {
      * Antes do processo, busca o ID do livro pelo ISBN, garantindo que:
      * <br>- Ao cadastrar um livro e já haver um livro com esse ISBN, o mesmo será atualizado
      * <br>- Os dados serão atualizados para o ISBN correto
+     * <br>
+     * Com o índice de ISBNs carregado, a busca é feita nele, sem consultar o banco (ver
+     * {@link #buscarIdExistentePorISBN(Long)}).
      *
      * @param dadosLivros Um {@link LivroDto} com dados do livro para cadastrar/atualizar
      */
     public void salvar(LivroDto dadosLivros) {
+        boolean consultouIndice = indiceIsbnCarregado;
         if (nonNull(dadosLivros.getIsbn())) {
             Long livroId = buscarIdExistentePorISBN(dadosLivros.getIsbn());
             if (nonNull(livroId)) {
@@ -106,16 +160,50 @@ public class LivroService {
                 .map(autor -> autorService.buscarOuCriarPorNome(autor.getNome()))
                 .collect(Collectors.toList()));
 
-        livroDAO.save(LivroMapper.dtoParaEntidade(dadosLivros));
+        Livro salvo;
+        try {
+            salvo = livroDAO.save(LivroMapper.dtoParaEntidade(dadosLivros));
+        } catch (RuntimeException e) {
+            salvo = salvarComIsbnDoBanco(dadosLivros, consultouIndice, e);
+        }
+
+        if (nonNull(salvo)) {
+            dadosLivros.setLivroId(salvo.getLivroId());
+            indexarLivro(dadosLivros);
+        }
+    }
+
+    /**
+     * O índice de ISBNs contém apenas as alterações feitas por esta aplicação. Caso o livro tenha sido considerado novo
+     * pelo índice e o cadastro falhe (ex.: o ISBN foi cadastrado por outra instância e viola a restrição única), o ISBN
+     * é buscado no banco e, se existir, o livro é atualizado.
+     */
+    private Livro salvarComIsbnDoBanco(LivroDto dadosLivros, boolean consultouIndice, RuntimeException erro) {
+        if (!consultouIndice || nonNull(dadosLivros.getLivroId()) || isNull(dadosLivros.getIsbn())) {
+            throw erro;
+        }
+
+        Long livroId = livroDAO.buscarIdExistentePorISBN(dadosLivros.getIsbn()).orElseThrow(() -> erro);
+        log.warn("ISBN {} não estava no índice, mas já está cadastrado. O livro {} será atualizado", dadosLivros.getIsbn(), livroId);
+
+        dadosLivros.setLivroId(livroId);
+        return livroDAO.save(LivroMapper.dtoParaEntidade(dadosLivros));
     }
 
     /**
-     * Busca o ID de um livro filtrando por ISBN
+     * Busca o ID de um livro filtrando por ISBN.
+     * <br>
+     * Com o índice de ISBNs carregado (ver {@link #carregarIndiceIsbn()}), a busca é feita apenas nele, sem consultar o
+     * banco. Até a carga terminar, a busca é feita no banco.
      *
      * @param isbn Identificador Único do livro
      * @return ID do livro na tabela livros
      */
     public Long buscarIdExistentePorISBN(Long isbn) {
+        if (indiceIsbnCarregado) {
+            long livroId = indiceIsbn.buscarLivroId(isbn);
+            return livroId == IndiceIsbn.NAO_ENCONTRADO ? null : livroId;
+        }
         return livroDAO.buscarIdExistentePorISBN(isbn).orElse(null);
     }
 
@@ -130,15 +218,250 @@ public class LivroService {
     }
 
     /**
-     * Busca todos os livros no banco
+     * Salva os livros de uma importação em lotes. O tamanho do lote é definido pelo parâmetro importacao.tamanhoLote
+     * da JVM (padrão: {@value #TAMANHO_LOTE_PADRAO}).
      *
-     * @return Lista com todos os livros cadastrados
+     * @param dadosImportacao Dados lidos do arquivo de importação
+     * @return Um {@link ResultadoImportacaoDto} com a quantidade de livros salvos, erros e tempo da importação
+     * @see #importarLivros(DadosImportacaoCsvDto, int)
      */
-    public List<LivroDto> buscarTodos() {
-        return livroDAO.buscarTodos()
-                .stream()
-                .map(LivroMapper::entidadeParaDto)
+    public ResultadoImportacaoDto importarLivros(DadosImportacaoCsvDto dadosImportacao) {
+        return importarLivros(dadosImportacao, getTamanhoLoteImportacao());
+    }
+
+    /**
+     * Salva os livros de uma importação em lotes, usando uma transação por lote.
+     * <br>
+     * Caso um lote falhe, seus livros são salvos individualmente, para que apenas os registros com problema fiquem
+     * de fora da importação.
+     *
+     * @param dadosImportacao Dados lidos do arquivo de importação
+     * @param tamanhoLote     Quantidade de livros salvos por transação
+     * @return Um {@link ResultadoImportacaoDto} com a quantidade de livros salvos, erros e tempo da importação
+     */
+    public ResultadoImportacaoDto importarLivros(DadosImportacaoCsvDto dadosImportacao, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero");
+        }
+
+        ResultadoImportacaoDto resultado = ResultadoImportacaoDto.builder()
+                .erros(new ArrayList<>(dadosImportacao.getErros()))
+                .build();
+
+        long inicio = System.nanoTime();
+        List<LivroDto> livros = dadosImportacao.getLivrosImportados();
+        for (int i = 0; i < livros.size(); i += tamanhoLote) {
+            salvarLote(livros.subList(i, Math.min(i + tamanhoLote, livros.size())), resultado);
+        }
+
+        return finalizarImportacao(resultado, inicio);
+    }
+
+    /**
+     * Importa um arquivo CSV usando lotes com tamanho definido pelo parâmetro importacao.tamanhoLote da JVM
+     * (padrão: {@value #TAMANHO_LOTE_PADRAO}).
+     *
+     * @param arquivo Arquivo CSV com dados para importar
+     * @return Um {@link ResultadoImportacaoDto} com a quantidade de livros salvos, erros e tempo da importação
+     * @see #importarCSV(File, int)
+     */
+    public ResultadoImportacaoDto importarCSV(File arquivo) {
+        return importarCSV(arquivo, getTamanhoLoteImportacao());
+    }
+
+    /**
+     * Importa um arquivo CSV salvando os livros à medida que são lidos.
+     * <br>
+     * Apenas um lote fica em memória por vez, então o consumo de memória não depende do tamanho do arquivo.
+     *
+     * @param arquivo     Arquivo CSV com dados para importar
+     * @param tamanhoLote Quantidade de livros salvos por transação
+     * @return Um {@link ResultadoImportacaoDto} com a quantidade de livros salvos, erros e tempo da importação
+     */
+    public ResultadoImportacaoDto importarCSV(File arquivo, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero");
+        }
+
+        ResultadoImportacaoDto resultado = ResultadoImportacaoDto.builder().build();
+        List<LivroDto> lote = new ArrayList<>(tamanhoLote);
+
+        long inicio = System.nanoTime();
+        livroCsvService.processarCSV(arquivo, livro -> {
+            lote.add(livro);
+            if (lote.size() >= tamanhoLote) {
+                salvarLote(lote, resultado);
+                lote.clear();
+            }
+        }, resultado.getErros()::add);
+
+        if (!lote.isEmpty()) {
+            salvarLote(lote, resultado);
+        }
+
+        return finalizarImportacao(resultado, inicio);
+    }
+
+    /**
+     * Completa os dados dos livros cadastrados sem editora, data de publicação ou autores, buscando-os na Open Library
+     * pelo ISBN. Apenas os dados faltantes são preenchidos.
+     * <br>
+     * Os livros são processados em lotes de {@value #TAMANHO_LOTE_COMPLETAR_DADOS}: uma consulta à API por lote (que já
+     * traz o nome dos autores e editoras, sem uma consulta por autor) e um único salvamento, em que cada autor e editora
+     * repetidos no lote são buscados ou cadastrados uma única vez. Caso a consulta de um lote falhe, o lote é ignorado e
+     * os demais são processados.
+     *
+     * @return Resultado com a quantidade de livros atualizados e os erros
+     */
+    public ResultadoImportacaoDto completarDadosApi() {
+        ResultadoImportacaoDto resultado = ResultadoImportacaoDto.builder().build();
+        long inicio = System.nanoTime();
+
+        List<LivroDto> livros = livroDAO.buscarPaginaIncompletos(null, TAMANHO_LOTE_COMPLETAR_DADOS);
+        while (!livros.isEmpty()) {
+            completarDadosApi(livros, resultado);
+            livros = livroDAO.buscarPaginaIncompletos(livros.get(livros.size() - 1).getLivroId(), TAMANHO_LOTE_COMPLETAR_DADOS);
+        }
+
+        resultado.setTempoMillis((System.nanoTime() - inicio) / 1_000_000);
+        log.info("Dados completados pela Open Library: {} livros atualizados em {} ms, {} erros",
+                resultado.getQuantidadeImportados(), resultado.getTempoMillis(), resultado.getErros().size());
+        return resultado;
+    }
+
+    private void completarDadosApi(List<LivroDto> livros, ResultadoImportacaoDto resultado) {
+        Map<Long, DadosLivroResponseDto> dadosPorIsbn;
+        try {
+            dadosPorIsbn = openLibraryService.buscarLivros(livros.stream()
+                    .map(LivroDto::getIsbn)
+                    .collect(Collectors.toList()));
+        } catch (ApiExecutionException e) {
+            log.error("Erro ao buscar dados de {} livros na Open Library", livros.size(), e);
+            // os livros do lote estão em ordem de ID, não de ISBN
+            resultado.getErros().add(String.format("Livros com ID de %d a %d: não foi possível buscar os dados na Open Library",
+                    livros.get(0).getLivroId(), livros.get(livros.size() - 1).getLivroId()));
+            return;
+        }
+
+        Map<String, AutorDto> autoresPorNome = new HashMap<>();
+        List<LivroDto> alterados = livros.stream()
+                .filter(livro -> completarDados(livro, dadosPorIsbn.get(livro.getIsbn()), autoresPorNome))
                 .collect(Collectors.toList());
+
+        if (!alterados.isEmpty()) {
+            salvarLote(alterados, resultado);
+        }
+    }
+
+    /**
+     * Preenche os dados faltantes do livro com os retornados pela API
+     *
+     * @param autoresPorNome Autores já criados no lote, para que cada autor seja criado apenas uma vez
+     * @return true se algum dado foi preenchido
+     */
+    private boolean completarDados(LivroDto livro, DadosLivroResponseDto dados, Map<String, AutorDto> autoresPorNome) {
+        if (isNull(dados)) {
+            return false;
+        }
+
+        boolean alterado = false;
+        if (isBlank(livro.getTitulo()) && !isBlank(dados.getTitle())) {
+            livro.setTitulo(dados.getTitle());
+            alterado = true;
+        }
+
+        // a API pode retornar as listas como null
+        Optional<String> editora = Optional.ofNullable(dados.getPublishers()).orElse(Collections.emptyList()).stream()
+                .map(EditoraResponseDto::getName)
+                .filter(nome -> !isBlank(nome))
+                .findFirst();
+        if (isNull(livro.getEditora()) && editora.isPresent()) {
+            livro.setEditora(EditoraDto.builder()
+                    .nome(editora.get())
+                    .build());
+            alterado = true;
+        }
+
+        if (isNull(livro.getDataPublicacao()) && nonNull(dados.getPublishDate())) {
+            livro.setDataPublicacao(dados.getPublishDate());
+            alterado = true;
+        }
+
+        if (livro.getAutores().isEmpty()) {
+            List<AutorDto> autores = Optional.ofNullable(dados.getAuthors()).orElse(Collections.emptyList()).stream()
+                    .map(AutorResponseDto::getName)
+                    .filter(nome -> !isBlank(nome))
+                    .distinct()
+                    .map(nome -> autoresPorNome.computeIfAbsent(nome, n -> AutorDto.builder().nome(n).build()))
+                    .collect(Collectors.toList());
+            if (!autores.isEmpty()) {
+                livro.setAutores(autores);
+                alterado = true;
+            }
+        }
+
+        return alterado;
+    }
+
+    /**
+     * Busca uma página de livros, ordenados pelo ID. Usado na listagem, que carrega os livros em blocos conforme as
+     * linhas da tabela são exibidas, sem carregar todos os livros de uma vez.
+     *
+     * @param cursor  Cursor retornado pela página anterior, ou null para a primeira página
+     * @param tamanho Quantidade de livros por página
+     * @return Um {@link PaginaDto} com os livros e o cursor da próxima página
+     */
+    public PaginaDto<LivroDto> buscarPagina(Long cursor, int tamanho) {
+        validarTamanhoPagina(tamanho);
+
+        // busca um livro a mais para saber se existe uma próxima página
+        List<LivroDto> livros = livroDAO.buscarPagina(cursor, tamanho + 1);
+
+        if (livros.size() <= tamanho) {
+            return PaginaDto.<LivroDto>builder().itens(livros).build();
+        }
+
+        List<LivroDto> itens = new ArrayList<>(livros.subList(0, tamanho));
+        return PaginaDto.<LivroDto>builder()
+                .itens(itens)
+                .proximoCursor(itens.get(tamanho - 1).getLivroId())
+                .build();
+    }
+
+    /**
+     * Busca os livros a partir de uma posição da listagem ordenada pelo ID. Usado quando a listagem é acessada direto
+     * em uma posição sem que a página anterior tenha sido carregada; nos demais casos, prefira
+     * {@link #buscarPagina(Long, int)}.
+     *
+     * @param inicio  Posição do primeiro livro, começando em 0
+     * @param tamanho Quantidade máxima de livros
+     * @return Lista com os livros encontrados
+     */
+    public List<LivroDto> buscarPaginaPorPosicao(int inicio, int tamanho) {
+        validarTamanhoPagina(tamanho);
+        if (inicio < 0) {
+            throw new IllegalArgumentException("A posição inicial não pode ser negativa");
+        }
+
+        return livroDAO.buscarPaginaPorPosicao(inicio, tamanho);
+    }
+
+    /**
+     * Busca os livros dos IDs informados, mantendo a ordem da lista. Usado com os IDs encontrados pelo índice em
+     * memória (ver {@link #buscarIdsPorIndice(String)}), buscando no banco apenas os livros exibidos.
+     *
+     * @param ids IDs dos livros
+     * @return Lista com os livros encontrados
+     */
+    public List<LivroDto> buscarPorIds(List<Long> ids) {
+        return livroDAO.buscarPorIds(ids);
+    }
+
+    /**
+     * @return Quantidade de livros cadastrados
+     */
+    public int contarLivros() {
+        return Math.toIntExact(livroDAO.contarLivros());
     }
 
     /**
@@ -146,6 +469,10 @@ public class LivroService {
      */
     public void deletarLivro(LivroDto livroDto) {
         livroDAO.delete(LivroMapper.dtoParaEntidade(livroDto));
+        if (nonNull(livroDto.getLivroId())) {
+            indiceBusca.remover(Math.toIntExact(livroDto.getLivroId()));
+            indiceIsbn.removerLivro(livroDto.getLivroId());
+        }
 
         Long editoraId = livroDto.getEditora().getEditoraId();
 
@@ -169,38 +496,205 @@ public class LivroService {
      * <br>- Remove hífens e valida o ISBN. Se for um ISBN válido, faz a busca por ISBN.
      * <br>- Busca pelo título, autores e editora.
      * <br>
-     * Para cada resultado das buscas, o livro é adicionado num Map, tendo como chave, o seu ID. Desse modo, não vai acontecer de um livro aparecer repetidamente.
+     * A busca é feita em duas etapas: primeiro são buscados apenas os IDs (ID e ISBN numa única consulta, seguidos
+     * pela busca textual), sem repetir um livro encontrado por mais de um critério. Depois os livros são carregados
+     * pelos IDs (ver {@link LivroDAO#buscarPorIds(List)}), então a quantidade de consultas não depende da quantidade de
+     * livros nem de autores encontrados. A ordem é mantida: os livros encontrados pelo ID e ISBN vêm primeiro,
+     * seguidos pelos da busca textual, ordenados por relevância.
      *
      * @param termo Termo a ser buscado, podendo ser o código do livro, ISBN, título, nome de um autor ou o nome da editora.
      * @return Lista com os livros que batem com a busca
      */
     public List<LivroDto> buscarLivro(String termo) {
-        Map<Long, Livro> livros = new HashMap<>();
+        Set<Long> ids = new LinkedHashSet<>(buscarIdsPorIdOuIsbn(termo));
 
-        // se for apenas número filtra por id
-        if (termo.matches("\\d+")) {
-            Livro livro = livroDAO.findById(Long.valueOf(termo)).orElse(null);
-            if (nonNull(livro)) {
-                livros.put(livro.getLivroId(), livro);
+        // busca por campos de texto (título, editora e autores)
+        ids.addAll(livroDAO.buscarIdsTextoGeral(termo));
+
+        return buscarPorIds(new ArrayList<>(ids));
+    }
+
+    /**
+     * Mesma busca de {@link #buscarLivro(String)}, mas entregando os livros em blocos conforme são encontrados, sem
+     * esperar o fim da busca. Os livros encontrados pelo ID e ISBN são entregues primeiro, e cada livro é entregue uma
+     * única vez.
+     *
+     * @param termo        Termo a ser buscado, podendo ser o código do livro, ISBN, título, nome de um autor ou o nome
+     *                     da editora.
+     * @param consumidor   Recebe cada bloco de livros encontrados. Blocos vazios não são entregues
+     * @param cancelamento Permite interromper a busca, inclusive a consulta em execução no banco
+     * @throws java.util.concurrent.CancellationException Caso a busca seja cancelada
+     */
+    public void buscarLivro(String termo, Consumer<List<LivroDto>> consumidor, CancelamentoConsulta cancelamento) {
+        Set<Long> idsEntregues = new HashSet<>();
+        Consumer<List<LivroDto>> entregar = livros -> {
+            List<LivroDto> bloco = livros.stream()
+                    .filter(livro -> idsEntregues.add(livro.getLivroId()))
+                    .collect(Collectors.toList());
+
+            if (!bloco.isEmpty()) {
+                consumidor.accept(bloco);
             }
-        }
+        };
+
+        entregar.accept(livroDAO.buscarPorIds(buscarIdsPorIdOuIsbn(termo)));
+        cancelamento.verificar();
+        livroDAO.buscarTextoGeral(termo, entregar, cancelamento);
+    }
+
+    /**
+     * Se o termo for apenas números, busca pelo ID. Se for um ISBN válido (ignorando hífens), busca pelo ISBN.
+     */
+    private List<Long> buscarIdsPorIdOuIsbn(String termo) {
+        // se for apenas número filtra por id
+        Long id = termo.matches("\\d{1,18}") ? Long.valueOf(termo) : null;
 
         // se for um ISBN valido, filtra por ele
         String apenasNumeros = termo.replaceAll("[^0-9]", "");
-        if (apenasNumeros.length() == 10 || apenasNumeros.length() == 13) {
-            Livro livro = livroDAO.buscarPorIsbn(Long.valueOf(termo.replaceAll("[^0-9]", "")));
-            if (nonNull(livro)) {
-                livros.put(livro.getLivroId(), livro);
+        Long isbn = apenasNumeros.length() == 10 || apenasNumeros.length() == 13 ? Long.valueOf(apenasNumeros) : null;
+
+        return livroDAO.buscarIdsPorIdOuIsbn(id, isbn);
+    }
+
+    /**
+     * Monta o índice de busca em memória com o título, autores e editora de todos os livros cadastrados. Até a carga
+     * terminar, {@link #isIndiceBuscaCarregado()} retorna false.
+     * <br>
+     * Após a carga, o índice é atualizado ao salvar, importar e remover livros (ver {@link #buscarIdsPorIndice(String)}).
+     */
+    public void carregarIndiceBusca() {
+        indiceBuscaCarregado = false;
+        long inicio = System.nanoTime();
+
+        indiceBusca.limpar();
+        livroDAO.percorrerTextosBusca((livroId, textos) -> indiceBusca.indexar(Math.toIntExact(livroId), textos));
+
+        indiceBuscaCarregado = true;
+        log.info("Índice de busca carregado: {} livros em {} ms", indiceBusca.getQuantidadeDocumentos(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean isIndiceBuscaCarregado() {
+        return indiceBuscaCarregado;
+    }
+
+    /**
+     * Monta o índice em memória com o ISBN de todos os livros cadastrados, usado para verificar se um ISBN já está
+     * cadastrado sem consultar o banco. Até a carga terminar, a verificação é feita no banco.
+     * <br>
+     * Após a carga, o índice é atualizado ao salvar, importar e remover livros.
+     */
+    public void carregarIndiceIsbn() {
+        indiceIsbnCarregado = false;
+        long inicio = System.nanoTime();
+
+        indiceIsbn.limpar();
+        livroDAO.percorrerIsbns(indiceIsbn::adicionar);
+
+        indiceIsbnCarregado = true;
+        log.info("Índice de ISBNs carregado: {} livros em {} ms", indiceIsbn.getQuantidade(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Busca livros pelo título, autores e editora usando o índice em memória, sem consultar o banco. Usado na
+     * filtragem enquanto o termo é digitado.
+     * <br>
+     * Cada palavra do termo precisa aparecer no livro, e pode ser parte de uma palavra (ex.: "pot har" encontra
+     * "Harry Potter"). Maiúsculas e acentos são ignorados.
+     *
+     * @param termo Termo a ser buscado
+     * @return IDs dos livros encontrados, em ordem crescente
+     */
+    public List<Long> buscarIdsPorIndice(String termo) {
+        return Arrays.stream(indiceBusca.buscar(termo))
+                .mapToObj(Long::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private void indexarLivro(LivroDto livro) {
+        if (isNull(livro.getLivroId())) {
+            return;
+        }
+
+        if (nonNull(livro.getIsbn())) {
+            indiceIsbn.adicionar(livro.getIsbn(), livro.getLivroId());
+        } else {
+            indiceIsbn.removerLivro(livro.getLivroId());
+        }
+
+        List<String> textos = new ArrayList<>();
+        textos.add(livro.getTitulo());
+        if (nonNull(livro.getEditora())) {
+            textos.add(livro.getEditora().getNome());
+        }
+        livro.getAutores().forEach(autor -> textos.add(autor.getNome()));
+
+        indiceBusca.indexar(Math.toIntExact(livro.getLivroId()), textos);
+    }
+
+    /**
+     * Salva um lote de livros numa única transação. Se falhar, tenta salvar os livros um a um.
+     *
+     * @param lote      Livros a serem salvos
+     * @param resultado Resultado da importação, atualizado com os livros salvos e os erros
+     */
+    private void salvarLote(List<LivroDto> lote, ResultadoImportacaoDto resultado) {
+        try {
+            List<Long> ids = livroDAO.salvarLote(lote.stream()
+                    .map(LivroMapper::dtoParaEntidade)
+                    .collect(Collectors.toList()));
+
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).setLivroId(ids.get(i));
+                indexarLivro(lote.get(i));
             }
+            resultado.setQuantidadeImportados(resultado.getQuantidadeImportados() + lote.size());
+        } catch (RuntimeException e) {
+            log.warn("Erro ao salvar lote com {} livros. Os livros serão salvos individualmente", lote.size(), e);
+            lote.forEach(livro -> {
+                try {
+                    salvar(livro);
+                    resultado.setQuantidadeImportados(resultado.getQuantidadeImportados() + 1);
+                } catch (RuntimeException ex) {
+                    log.error("Erro ao salvar livro com ISBN {}", livro.getIsbn(), ex);
+                    resultado.getErros().add(String.format("ISBN %d: não foi possível salvar o livro", livro.getIsbn()));
+                }
+            });
         }
+    }
 
-        // busca por campos de texto (título, editora e autores)
-        livroDAO.buscarTextoGeral(termo).forEach(livro -> livros.put(livro.getLivroId(), livro));
+    private void validarTamanhoPagina(int tamanho) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+    }
 
-        return livros.values()
-                .stream()
-                .map(LivroMapper::entidadeParaDto)
-                .collect(Collectors.toList());
+    private ResultadoImportacaoDto finalizarImportacao(ResultadoImportacaoDto resultado, long inicio) {
+        resultado.setTempoMillis((System.nanoTime() - inicio) / 1_000_000);
+
+        log.info("Importação finalizada: {} livros salvos em {} ms ({} livros/s)", resultado.getQuantidadeImportados(),
+                resultado.getTempoMillis(), String.format("%.1f", resultado.getLivrosPorSegundo()));
+        return resultado;
+    }
+
+    /**
+     * Retorna o tamanho do lote de importação com base no parâmetro importacao.tamanhoLote da JVM. Se for inválido ou
+     * não achar, usa {@value #TAMANHO_LOTE_PADRAO}
+     */
+    private int getTamanhoLoteImportacao() {
+        String tamanhoLote = System.getProperty("importacao.tamanhoLote");
+        if (isNull(tamanhoLote)) {
+            return TAMANHO_LOTE_PADRAO;
+        }
+
+        try {
+            int tamanho = Integer.parseInt(tamanhoLote.trim());
+            return tamanho > 0 ? tamanho : TAMANHO_LOTE_PADRAO;
+        } catch (NumberFormatException e) {
+            log.warn("Tamanho de lote inválido: '{}'. Será usado o padrão: {}", tamanhoLote, TAMANHO_LOTE_PADRAO);
+            return TAMANHO_LOTE_PADRAO;
+        }
     }
 
 }
@@ -1,56 +1,82 @@
 package com.biblioteca.catalogo.service;
 
 import com.biblioteca.catalogo.api.OpenLibraryApi;
+import com.biblioteca.catalogo.cache.CacheLru;
 import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.DadosLivroResponseDto;
 import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
 import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
 import com.biblioteca.catalogo.exception.ApiExecutionException;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.biblioteca.catalogo.factory.OpenLibraryApiFactory;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.jackson.JacksonConverterFactory;
 
 import java.io.IOException;
-import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
-import static org.apache.commons.lang3.StringUtils.isBlank;
+import static java.util.Objects.nonNull;
 
-@Slf4j
 @RequiredArgsConstructor
 public class OpenLibraryService {
 
+    private static final String PREFIXO_ISBN = "ISBN:";
+    private static final int THREADS_CONSULTA = 8;
+    private static final int TAMANHO_CACHE_NAO_ENCONTRADOS = 1000;
+    private static final long VALIDADE_NAO_ENCONTRADOS_MS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Executa as consultas de livro e autor, limitado a {@value #THREADS_CONSULTA} consultas simultâneas. A thread de
+     * quem pediu a consulta apenas aguarda o resultado, então cancelar uma busca (ex.: ao buscar o ISBN novamente na
+     * tela de cadastro) não interrompe a consulta compartilhada com outras buscas.
+     */
+    private static final ExecutorService EXECUTOR_CONSULTAS = criarExecutorConsultas();
+
     private final OpenLibraryApi openLibraryApi;
 
+    /**
+     * Consultas em andamento, pela chave do livro ou autor. Quem buscar o mesmo livro ou autor enquanto a consulta não
+     * terminar aguarda o mesmo resultado, sem fazer outra requisição
+     */
+    private final Map<String, CompletableFuture<?>> consultasEmAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * ISBNs que a API retornou como não encontrados, com o momento (em ms) até quando a resposta é válida
+     */
+    private final CacheLru<String, Long> isbnsNaoEncontrados = new CacheLru<>(TAMANHO_CACHE_NAO_ENCONTRADOS);
+
     public OpenLibraryService() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.addHandler(new DeserializationProblemHandler() {
-            @Override
-            public Object handleWeirdStringValue(DeserializationContext ctxt, Class<?> targetType, String valueToConvert, String failureMsg) throws IOException {
-                if (targetType != LocalDate.class || isBlank(valueToConvert)) {
-                    return super.handleWeirdStringValue(ctxt, targetType, valueToConvert, failureMsg);
-                }
-                log.warn("A data '{}' é inválida para o campo '{}'. Atributo será ignorado.", valueToConvert, ctxt.getParser().currentName());
-                return null;
-            }
-        });
-        this.openLibraryApi = new Retrofit.Builder()
-                .baseUrl("https://openlibrary.org")
-                .addConverterFactory(JacksonConverterFactory.create(objectMapper))
-                .build()
-                .create(OpenLibraryApi.class);
+        this.openLibraryApi = OpenLibraryApiFactory.criar();
     }
 
     /**
-     * Busca dados básicos do livro por ISBN
+     * Busca dados básicos do livro por ISBN.
+     * <br>
+     * Buscas simultâneas do mesmo ISBN compartilham uma única requisição. ISBNs não encontrados são lembrados por
+     * {@value #VALIDADE_NAO_ENCONTRADOS_MS} ms (até {@value #TAMANHO_CACHE_NAO_ENCONTRADOS} ISBNs), retornando null sem
+     * consultar a API novamente.
+     *
+     * @return Dados do livro, ou null caso não seja encontrado
      */
     public LivroResponseDto buscarLivro(String isbn) throws ApiExecutionException {
+        Long validade = isbnsNaoEncontrados.buscar(isbn).orElse(null);
+        if (nonNull(validade)) {
+            if (validade > System.currentTimeMillis()) {
+                return null;
+            }
+            isbnsNaoEncontrados.remover(isbn);
+        }
+
+        return aguardar(consultarUmaVez("isbn:" + isbn, () -> executarBuscaLivro(isbn)));
+    }
+
+    private LivroResponseDto executarBuscaLivro(String isbn) throws ApiExecutionException {
         Response<LivroResponseDto> response = null;
         try {
             response = openLibraryApi.buscarLivro(isbn).execute();
@@ -60,6 +86,7 @@ public class OpenLibraryService {
 
         if (!response.isSuccessful()) {
             if (response.code() == 404) {
+                isbnsNaoEncontrados.adicionar(isbn, System.currentTimeMillis() + VALIDADE_NAO_ENCONTRADOS_MS);
                 return null;
             }
 
@@ -70,9 +97,27 @@ public class OpenLibraryService {
         return response.body();
     }
 
+    /**
+     * Busca o autor pela chave retornada na consulta do livro. Buscas simultâneas do mesmo autor compartilham uma única
+     * requisição.
+     */
     public AutorResponseDto buscarAutor(KeyDto autor) throws ApiExecutionException {
+        return aguardar(buscarAutorAsync(autor));
+    }
+
+    /**
+     * Igual a {@link #buscarAutor(KeyDto)}, mas sem aguardar o resultado, permitindo buscar vários autores ao mesmo
+     * tempo. Cancelar o retorno não interrompe a consulta compartilhada com outras buscas.
+     *
+     * @return Resultado da consulta, concluído com {@link ApiExecutionException} caso ela falhe
+     */
+    public CompletableFuture<AutorResponseDto> buscarAutorAsync(KeyDto autor) {
         String[] arr = autor.getKey().split("/");
         String idAutor = arr[arr.length - 1];
+        return consultarUmaVez("autor:" + idAutor, () -> executarBuscaAutor(idAutor));
+    }
+
+    private AutorResponseDto executarBuscaAutor(String idAutor) throws ApiExecutionException {
         Response<AutorResponseDto> response = null;
         try {
             response = openLibraryApi.buscarAutor(idAutor).execute();
@@ -92,4 +137,112 @@ public class OpenLibraryService {
         return response.body();
     }
 
+    /**
+     * Busca os dados de vários livros numa única consulta, já com o nome dos autores e editoras.
+     * <br>
+     * Os ISBNs são enviados na URL, então a quantidade por consulta deve ser limitada (ex.: 100).
+     *
+     * @param isbns ISBNs dos livros
+     * @return Dados dos livros encontrados, pelo ISBN. Livros não encontrados não são retornados
+     */
+    public Map<Long, DadosLivroResponseDto> buscarLivros(Collection<Long> isbns) throws ApiExecutionException {
+        // ISBN-10 iniciado por zero perde o zero ao ser guardado como número
+        String bibkeys = isbns.stream()
+                .map(isbn -> String.format("%s%010d", PREFIXO_ISBN, isbn))
+                .collect(Collectors.joining(","));
+
+        Response<Map<String, DadosLivroResponseDto>> response = null;
+        try {
+            response = openLibraryApi.buscarLivros(bibkeys).execute();
+        } catch (IOException e) {
+            throw new ApiExecutionException("Ocorreu um erro ao buscar dados dos livros", e);
+        }
+
+        if (!response.isSuccessful()) {
+            String msg = String.format("Consulta retornou código %d", response.code());
+            throw new ApiExecutionException(msg);
+        }
+
+        Map<Long, DadosLivroResponseDto> livros = new HashMap<>();
+        if (isNull(response.body())) {
+            return livros;
+        }
+
+        response.body().forEach((chave, livro) -> {
+            if (chave.startsWith(PREFIXO_ISBN) && !isNull(livro)) {
+                livros.put(Long.valueOf(chave.substring(PREFIXO_ISBN.length())), livro);
+            }
+        });
+        return livros;
+    }
+
+    /**
+     * Executa a consulta, ou reaproveita a que já estiver em andamento com a mesma chave
+     *
+     * @param chave    Identifica o livro ou autor consultado
+     * @param consulta Consulta executada caso não exista outra em andamento
+     * @return Resultado da consulta. É uma cópia do resultado compartilhado, então pode ser cancelado sem afetar as
+     * outras buscas
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> consultarUmaVez(String chave, Consulta<T> consulta) {
+        CompletableFuture<T> nova = new CompletableFuture<>();
+        CompletableFuture<T> emAndamento = (CompletableFuture<T>) consultasEmAndamento.putIfAbsent(chave, nova);
+
+        if (isNull(emAndamento)) {
+            emAndamento = nova;
+            // a consulta deixa de estar em andamento antes de liberar o resultado, para que uma nova busca feita após
+            // recebê-lo consulte a API novamente em vez de reaproveitá-lo
+            EXECUTOR_CONSULTAS.execute(() -> {
+                T resultado;
+                try {
+                    resultado = consulta.executar();
+                } catch (Throwable e) {
+                    consultasEmAndamento.remove(chave, nova);
+                    nova.completeExceptionally(e);
+                    return;
+                }
+                consultasEmAndamento.remove(chave, nova);
+                nova.complete(resultado);
+            });
+        }
+
+        return emAndamento.thenApply(Function.identity());
+    }
+
+    /**
+     * Aguarda o resultado da consulta
+     *
+     * @throws ApiExecutionException Caso a consulta falhe, ou a espera pelo resultado seja interrompida
+     */
+    private <T> T aguardar(CompletableFuture<T> consulta) throws ApiExecutionException {
+        try {
+            return consulta.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiExecutionException) {
+                throw (ApiExecutionException) e.getCause();
+            }
+            throw new ApiExecutionException("Ocorreu um erro ao consultar a Open Library", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiExecutionException("A consulta à Open Library foi interrompida", e);
+        }
+    }
+
+    private static ExecutorService criarExecutorConsultas() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS_CONSULTA, THREADS_CONSULTA,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), tarefa -> {
+            Thread thread = new Thread(tarefa, "consulta-openlibrary-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @FunctionalInterface
+    private interface Consulta<T> {
+        T executar() throws ApiExecutionException;
+    }
 }
@@ -0,0 +1,25 @@
+package com.biblioteca.catalogo.ui.components;
+
+import com.biblioteca.catalogo.dto.LivroDto;
+
+import java.util.List;
+
+/**
+ * Fonte dos livros exibidos na {@link TabelaLivros}. Os livros são buscados em blocos, conforme as linhas são exibidas
+ * (ver {@link TableModelLivros}). A busca é feita fora da thread da interface.
+ */
+@FunctionalInterface
+public interface FonteDadosLivros {
+
+    /**
+     * Busca um bloco de livros
+     *
+     * @param inicio     Posição (linha) do primeiro livro do bloco
+     * @param quantidade Quantidade de livros do bloco
+     * @param idAnterior ID do livro da linha anterior ao bloco, caso já tenha sido carregado. Permite buscar o bloco
+     *                   por paginação por chave, sem precisar pular as linhas anteriores
+     * @return Lista com os livros do bloco
+     */
+    List<LivroDto> buscar(int inicio, int quantidade, Long idAnterior);
+
+}
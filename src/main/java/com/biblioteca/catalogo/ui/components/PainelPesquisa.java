@@ -7,6 +7,8 @@ import lombok.Setter;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.util.function.Consumer;
 
 import static java.util.Objects.isNull;
@@ -27,6 +29,14 @@ public class PainelPesquisa extends JPanel {
     @Setter
     private Runnable onLimpar;
 
+    /**
+     * Chamado a cada alteração feita pelo usuário no campo de pesquisa, com o texto digitado (sem espaços extras)
+     */
+    @Setter
+    private Consumer<String> onDigitar;
+
+    private boolean alterandoTexto;
+
     /**
      * Gera um painel de pesquisa com o botão de limpar sendo exibido
      *
@@ -74,6 +84,34 @@ public class PainelPesquisa extends JPanel {
         botaoPesquisar.addActionListener(e -> executarPesquisa());
 
         botaoLimparPesquisa.addActionListener(e -> limparCampo());
+
+        campoPesquisa.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                notificarDigitacao();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                notificarDigitacao();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                notificarDigitacao();
+            }
+        });
+    }
+
+    /**
+     * Alterações feitas por {@link #setText(String)} não são notificadas
+     */
+    private void notificarDigitacao() {
+        if (alterandoTexto || isNull(onDigitar)) {
+            return;
+        }
+
+        onDigitar.accept(getText());
     }
 
     private void executarPesquisa() {
@@ -116,7 +154,12 @@ public class PainelPesquisa extends JPanel {
     }
 
     public void setText(String texto) {
-        campoPesquisa.setText(texto);
+        alterandoTexto = true;
+        try {
+            campoPesquisa.setText(texto);
+        } finally {
+            alterandoTexto = false;
+        }
     }
 
 
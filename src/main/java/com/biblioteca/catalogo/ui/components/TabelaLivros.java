@@ -3,7 +3,6 @@ package com.biblioteca.catalogo.ui.components;
 import com.biblioteca.catalogo.dto.AutorDto;
 import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.dto.LivroDto;
-import com.biblioteca.catalogo.mapper.LivroMapper;
 import lombok.Setter;
 
 import javax.swing.*;
@@ -41,20 +40,41 @@ public class TabelaLivros extends JTable {
             return null;
         }
 
-        Object[] dados = new Object[tableModel.getColumnCount()];
-        for (int i = 0; i < dados.length; i++) {
-            dados[i] = tableModel.getValueAt(linha, i);
-        }
-
-        return LivroMapper.arrayToLivroDto(dados);
+        return tableModel.getLivro(linha);
     }
 
     public void limparRegistros() {
-        tableModel.setRowCount(0);
+        tableModel.limpar();
+    }
+
+    /**
+     * Exibe os livros de uma fonte. Apenas as linhas visíveis são carregadas (ver {@link TableModelLivros}).
+     *
+     * @param quantidade Quantidade total de livros da fonte
+     * @param fonte      Fonte dos livros
+     */
+    public void setFonteDados(int quantidade, FonteDadosLivros fonte) {
+        clearSelection();
+        tableModel.setFonteDados(quantidade, fonte);
+    }
+
+    /**
+     * Substitui os livros exibidos por uma lista já carregada, atualizando a tabela de uma só vez
+     *
+     * @param livros Livros a serem exibidos
+     */
+    public void substituirRegistros(List<LivroDto> livros) {
+        clearSelection();
+        tableModel.substituirLivros(livros);
     }
 
-    public void adicionarRegistro(LivroDto livroDto) {
-        tableModel.addRow(new Object[]{livroDto.getLivroId(), livroDto.getTitulo(), livroDto.getAutores(), livroDto.getDataPublicacao(), livroDto.getIsbn(), livroDto.getEditora()});
+    /**
+     * Adiciona livros ao fim da tabela, atualizando a tabela de uma só vez para todo o bloco
+     *
+     * @param livros Livros a serem adicionados
+     */
+    public void adicionarRegistros(List<LivroDto> livros) {
+        tableModel.adicionarLivros(livros);
     }
 
     private void configurarTabela() {
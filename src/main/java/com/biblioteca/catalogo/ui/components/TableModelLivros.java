@@ -1,17 +1,193 @@
 package com.biblioteca.catalogo.ui.components;
 
+import com.biblioteca.catalogo.cache.CacheLru;
 import com.biblioteca.catalogo.dto.EditoraDto;
+import com.biblioteca.catalogo.dto.LivroDto;
+import lombok.extern.slf4j.Slf4j;
 
-import javax.swing.table.DefaultTableModel;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
 
-public class TableModelLivros extends DefaultTableModel {
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Modelo da {@link TabelaLivros} que não mantém todos os livros em memória: conhece apenas a quantidade de linhas e
+ * busca os livros em blocos de {@value #TAMANHO_BLOCO} linhas na {@link FonteDadosLivros}, conforme as linhas são
+ * exibidas.
+ * <br>
+ * Os blocos carregados ficam em um {@link CacheLru} de até {@value #MAXIMO_BLOCOS_CACHE} blocos, então a memória usada
+ * não depende da quantidade de livros. Enquanto um bloco é carregado, em segundo plano, suas linhas são exibidas como
+ * "Carregando...". Caso o carregamento falhe, são exibidas como "Erro ao carregar" até a fonte ser trocada.
+ * <br>
+ * O ID do último livro de cada bloco carregado é guardado, para que o bloco seguinte seja buscado por paginação por
+ * chave (ver {@link FonteDadosLivros#buscar(int, int, Long)}).
+ * <br>
+ * Livros que já estão em memória (ex.: resultado da pesquisa) podem ser exibidos direto com
+ * {@link #substituirLivros(List)}, sem passar pelos blocos.
+ */
+@Slf4j
+public class TableModelLivros extends AbstractTableModel {
 
     private static final String[] COLUNAS = {"ID", "Título", "Autores", "Data Publicação", "ISBN", "Editora"};
+    private static final int TAMANHO_BLOCO = 100;
+    private static final int MAXIMO_BLOCOS_CACHE = 50;
+
+    private final CacheLru<Integer, List<LivroDto>> blocos = new CacheLru<>(MAXIMO_BLOCOS_CACHE);
+    private final Map<Integer, Long> ultimosIdsBlocos = new HashMap<>();
+    private final Set<Integer> blocosCarregando = new HashSet<>();
+    private final Set<Integer> blocosComErro = new HashSet<>();
+
+    private FonteDadosLivros fonte;
+    private int quantidadeLinhas;
+
+    /**
+     * Livros exibidos quando já estão todos em memória. Fica nulo quando os livros são buscados na {@link #fonte}.
+     */
+    private List<LivroDto> livros = Collections.emptyList();
+
+    /**
+     * Indica se {@link #livros} foi criada pelo próprio modelo, podendo receber novos livros sem precisar ser copiada
+     */
+    private boolean listaPropria;
+
+    /**
+     * Incrementada a cada troca de fonte, para descartar blocos de uma fonte anterior que terminarem de carregar depois
+     */
+    private int versao;
+
+    /**
+     * Troca os livros exibidos
+     *
+     * @param quantidadeLinhas Quantidade total de livros da fonte
+     * @param fonte            Fonte dos livros
+     */
+    public void setFonteDados(int quantidadeLinhas, FonteDadosLivros fonte) {
+        trocarLivros(quantidadeLinhas, fonte, null);
+    }
+
+    /**
+     * Troca os livros exibidos por uma lista já carregada. A lista é usada direto, sem cópia, e a tabela é atualizada
+     * com um único evento, independente da quantidade de livros.
+     *
+     * @param livros Livros a serem exibidos. Não deve ser alterada enquanto estiver sendo exibida
+     */
+    public void substituirLivros(List<LivroDto> livros) {
+        trocarLivros(livros.size(), null, livros);
+    }
+
+    /**
+     * Adiciona livros ao fim da lista exibida, com um único evento para todo o bloco. Usado para exibir os resultados
+     * conforme são encontrados.
+     *
+     * @param novosLivros Livros a serem adicionados
+     */
+    public void adicionarLivros(List<LivroDto> novosLivros) {
+        if (isNull(livros)) {
+            throw new IllegalStateException("Não é possível adicionar livros quando os livros são buscados em uma fonte de dados");
+        }
+
+        if (novosLivros.isEmpty()) {
+            return;
+        }
+
+        if (!listaPropria) {
+            livros = new ArrayList<>(livros);
+            listaPropria = true;
+        }
+
+        int inicio = livros.size();
+        livros.addAll(novosLivros);
+        quantidadeLinhas = livros.size();
+        fireTableRowsInserted(inicio, quantidadeLinhas - 1);
+    }
+
+    public void limpar() {
+        substituirLivros(Collections.emptyList());
+    }
+
+    private void trocarLivros(int quantidadeLinhas, FonteDadosLivros fonte, List<LivroDto> livros) {
+        this.versao++;
+        this.fonte = fonte;
+        this.livros = livros;
+        this.listaPropria = false;
+        this.quantidadeLinhas = quantidadeLinhas;
+        blocos.limpar();
+        ultimosIdsBlocos.clear();
+        blocosCarregando.clear();
+        blocosComErro.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Retorna o livro de uma linha. Caso o bloco da linha ainda não esteja carregado, inicia o carregamento.
+     *
+     * @param linha Índice da linha
+     * @return Um {@link LivroDto} com o livro, ou null caso ainda esteja sendo carregado
+     */
+    public LivroDto getLivro(int linha) {
+        if (linha < 0 || linha >= quantidadeLinhas) {
+            return null;
+        }
+
+        if (nonNull(livros)) {
+            return livros.get(linha);
+        }
+
+        int bloco = linha / TAMANHO_BLOCO;
+        Optional<List<LivroDto>> livrosBloco = blocos.buscar(bloco);
+        if (!livrosBloco.isPresent()) {
+            carregarBloco(bloco);
+            return null;
+        }
 
-    public TableModelLivros() {
-        super(COLUNAS, 0);
+        int posicao = linha % TAMANHO_BLOCO;
+        return posicao < livrosBloco.get().size() ? livrosBloco.get().get(posicao) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return quantidadeLinhas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        LivroDto livro = getLivro(linha);
+        if (isNull(livro)) {
+            return coluna == 1 ? getSituacaoBloco(linha / TAMANHO_BLOCO) : null;
+        }
+
+        switch (coluna) {
+            case 0: return livro.getLivroId();
+            case 1: return livro.getTitulo();
+            case 2: return livro.getAutores();
+            case 3: return livro.getDataPublicacao();
+            case 4: return livro.getIsbn();
+            case 5: return livro.getEditora();
+            default: return null;
+        }
+    }
+
+    /**
+     * Texto exibido no título das linhas de um bloco que ainda não foi carregado
+     */
+    private String getSituacaoBloco(int bloco) {
+        if (blocosComErro.contains(bloco)) {
+            return "Erro ao carregar";
+        }
+        return blocosCarregando.contains(bloco) ? "Carregando..." : null;
     }
 
     @Override
@@ -31,4 +207,52 @@ public class TableModelLivros extends DefaultTableModel {
             default: return Object.class;
         }
     }
+
+    /**
+     * Busca o bloco em segundo plano e atualiza suas linhas ao terminar. Um bloco com erro não é buscado novamente até
+     * a fonte ser trocada, evitando novas tentativas a cada vez que a tabela é desenhada.
+     */
+    private void carregarBloco(int bloco) {
+        if (blocosComErro.contains(bloco) || !blocosCarregando.add(bloco)) {
+            return;
+        }
+
+        int versaoBloco = versao;
+        FonteDadosLivros fonteBloco = fonte;
+        int inicio = bloco * TAMANHO_BLOCO;
+        int quantidade = Math.min(TAMANHO_BLOCO, quantidadeLinhas - inicio);
+        Long idAnterior = bloco == 0 ? null : ultimosIdsBlocos.get(bloco - 1);
+
+        new SwingWorker<List<LivroDto>, Void>() {
+            @Override
+            protected List<LivroDto> doInBackground() {
+                return fonteBloco.buscar(inicio, quantidade, idAnterior);
+            }
+
+            @Override
+            protected void done() {
+                if (versaoBloco != versao) {
+                    return;
+                }
+
+                blocosCarregando.remove(bloco);
+
+                List<LivroDto> livrosBloco;
+                try {
+                    livrosBloco = get();
+                } catch (Exception e) {
+                    log.error("Erro ao carregar as linhas {} a {} da tabela de livros", inicio, inicio + quantidade - 1, e);
+                    blocosComErro.add(bloco);
+                    fireTableRowsUpdated(inicio, inicio + quantidade - 1);
+                    return;
+                }
+
+                blocos.adicionar(bloco, livrosBloco);
+                if (!livrosBloco.isEmpty()) {
+                    ultimosIdsBlocos.put(bloco, livrosBloco.get(livrosBloco.size() - 1).getLivroId());
+                }
+                fireTableRowsUpdated(inicio, inicio + quantidade - 1);
+            }
+        }.execute();
+    }
 }
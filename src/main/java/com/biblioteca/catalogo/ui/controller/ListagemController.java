@@ -1,8 +1,11 @@
 package com.biblioteca.catalogo.ui.controller;
 
-import com.biblioteca.catalogo.dto.DadosImportacaoCsvDto;
+import com.biblioteca.catalogo.database.dao.CancelamentoConsulta;
 import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.dto.ResultadoImportacaoDto;
 import com.biblioteca.catalogo.service.LivroService;
+import com.biblioteca.catalogo.ui.components.FonteDadosLivros;
+import com.biblioteca.catalogo.ui.helper.AgendadorPesquisa;
 import com.biblioteca.catalogo.ui.helper.DialogHelper;
 import com.biblioteca.catalogo.ui.view.ListagemView;
 import lombok.extern.slf4j.Slf4j;
@@ -10,26 +13,41 @@ import lombok.extern.slf4j.Slf4j;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Slf4j
 public class ListagemController extends ListagemView {
 
+    private static final int ATRASO_FILTRO_PADRAO_MS = 250;
+
     private final LivroService livroService;
-    private SwingWorker<DadosImportacaoCsvDto, Void> workerImportacaoCsv;
-    private SwingWorker<List<LivroDto>, Void> workerBuscaLivro;
+    private final AgendadorPesquisa agendadorFiltro;
+    private SwingWorker<ResultadoImportacaoDto, Void> workerImportacaoCsv;
+    private SwingWorker<ResultadoImportacaoDto, Void> workerCompletarDados;
+    private SwingWorker<Integer, List<LivroDto>> workerBuscaLivro;
     private SwingWorker<Void, Void> workerRemocaoLivro;
+    private SwingWorker<Integer, Void> workerContagemLivros;
+    private CancelamentoConsulta cancelamentoBusca;
+
+    /**
+     * Identificador da listagem atual, incrementado a cada nova listagem, pesquisa ou filtro. Resultados de uma
+     * listagem anterior que chegarem depois são descartados. Acessado apenas na thread da interface.
+     */
+    private long idListagemAtual;
 
     public ListagemController() {
         super();
         this.livroService = new LivroService();
+        this.agendadorFiltro = new AgendadorPesquisa(getAtrasoFiltro(), this::aplicarFiltro);
         atualizarListaLivros();
+        carregarIndiceBusca();
     }
 
     @Override
@@ -38,9 +56,44 @@ public class ListagemController extends ListagemView {
             return;
         }
 
+        agendadorFiltro.cancelar();
         buscarLivro(termo);
     }
 
+    /**
+     * Filtra os livros usando o índice de busca em memória. O filtro só é aplicado quando o termo para de ser alterado
+     * por um intervalo (ver {@link #getAtrasoFiltro()}), para não buscar no banco os livros exibidos a cada tecla.
+     * Enquanto o índice estiver sendo carregado, a pesquisa só é feita ao confirmar o termo.
+     */
+    @Override
+    protected void filtrarLivros(String termo) {
+        if (!livroService.isIndiceBuscaCarregado()) {
+            return;
+        }
+
+        agendadorFiltro.agendar(termo);
+    }
+
+    /**
+     * Apenas os livros das linhas exibidas são buscados no banco
+     */
+    private void aplicarFiltro(String termo) {
+        if (isBlank(termo)) {
+            if (isResultadoFiltrado()) {
+                setResultadoFiltrado(false);
+                listarTodos(false);
+            }
+            return;
+        }
+
+        iniciarListagem();
+        setResultadoFiltrado(true);
+
+        List<Long> ids = livroService.buscarIdsPorIndice(termo);
+        exibirLivros(ids.size(), (inicio, quantidade, idAnterior) ->
+                livroService.buscarPorIds(ids.subList(inicio, Math.min(inicio + quantidade, ids.size()))));
+    }
+
     @Override
     protected void adicionarLivro() {
         CadastroLivroController controller = new CadastroLivroController(this, livroService, this::atualizarListaLivros);
@@ -49,8 +102,10 @@ public class ListagemController extends ListagemView {
 
     @Override
     protected void atualizarListaLivros() {
+        agendadorFiltro.cancelar();
         limparCampoPesquisa();
-        buscarLivro("");
+        setResultadoFiltrado(false);
+        listarTodos(true);
     }
 
     @Override
@@ -93,33 +148,148 @@ public class ListagemController extends ListagemView {
         workerImportacaoCsv.execute();
     }
 
+    @Override
+    protected void completarDados() {
+        if (nonNull(workerCompletarDados) && !workerCompletarDados.isDone()) {
+            return;
+        }
+
+        workerCompletarDados = criarWorkerCompletarDados();
+        habilitarCarregamento("Completando dados dos livros pela Open Library");
+        workerCompletarDados.execute();
+    }
+
     private void buscarLivro(String termo) {
+        long idListagem = iniciarListagem();
+        cancelamentoBusca = new CancelamentoConsulta();
+
+        setResultadoFiltrado(true);
+        exibirLivrosTabela(Collections.emptyList());
+        habilitarCarregamento(String.format("Buscando por: %s", termo));
+        workerBuscaLivro = criarWorkerConsultaLivro(termo, idListagem, cancelamentoBusca);
+        workerBuscaLivro.execute();
+    }
+
+    private void carregarIndiceBusca() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                livroService.carregarIndiceIsbn();
+                livroService.carregarIndiceBusca();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    log.error("Erro ao carregar os índices em memória. A pesquisa será feita apenas ao confirmar o termo", e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Lista todos os livros. Apenas a quantidade é buscada de imediato: os livros são buscados em blocos conforme as
+     * linhas são exibidas, por paginação por chave quando o ID do livro anterior ao bloco é conhecido, ou pela posição
+     * quando a tabela é rolada direto para um trecho ainda não carregado.
+     *
+     * @param exibirCarregamento Se true, exibe a barra de carregamento e bloqueia a tela até obter a quantidade
+     */
+    private void listarTodos(boolean exibirCarregamento) {
+        long idListagem = iniciarListagem();
+
+        if (exibirCarregamento) {
+            habilitarCarregamento("Carregando livros");
+        }
+
+        workerContagemLivros = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return livroService.contarLivros();
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || idListagem != idListagemAtual) {
+                    return;
+                }
+
+                if (exibirCarregamento) {
+                    desabilitarCarregamento();
+                }
+
+                int quantidade;
+                try {
+                    quantidade = get();
+                } catch (Exception e) {
+                    log.error("Erro ao buscar livros", e);
+                    DialogHelper.exibirErro(ListagemController.this, "Ocorreu um erro ao buscar livros");
+                    return;
+                }
+
+                exibirLivros(quantidade, (inicio, tamanho, idAnterior) -> inicio == 0 || nonNull(idAnterior)
+                        ? livroService.buscarPagina(idAnterior, tamanho).getItens()
+                        : livroService.buscarPaginaPorPosicao(inicio, tamanho));
+            }
+        };
+        workerContagemLivros.execute();
+    }
+
+    /**
+     * Cancela a listagem em andamento e gera o identificador da nova listagem.
+     * <br>
+     * A pesquisa em andamento é interrompida também no banco (ver {@link CancelamentoConsulta}). Os workers não são
+     * interrompidos com {@link Thread#interrupt()}, que pode fechar a conexão do H2 no meio de uma consulta.
+     *
+     * @return Identificador da nova listagem
+     */
+    private long iniciarListagem() {
+        boolean cancelouListagem = false;
+
         if (nonNull(workerBuscaLivro) && !workerBuscaLivro.isDone()) {
-            workerBuscaLivro.cancel(true);
+            cancelamentoBusca.cancelar();
+            workerBuscaLivro.cancel(false);
+            cancelouListagem = true;
         }
 
-        String msg = isBlank(termo) ? "Carregando livros" : String.format("Buscando por: %s", termo);
-        habilitarCarregamento(msg);
-        workerBuscaLivro = criarWorkerConsultaLivro(termo);
-        workerBuscaLivro.execute();
+        if (nonNull(workerContagemLivros) && !workerContagemLivros.isDone()) {
+            workerContagemLivros.cancel(false);
+            cancelouListagem = true;
+        }
+
+        // a listagem cancelada não chega ao done, que esconderia a barra de carregamento
+        if (cancelouListagem) {
+            desabilitarCarregamento();
+        }
+
+        return ++idListagemAtual;
+    }
+
+    private void exibirLivros(int quantidade, FonteDadosLivros fonte) {
+        exibirLivrosTabela(quantidade, fonte);
+        atualizarStatusQuantidade(quantidade);
+    }
+
+    private void atualizarStatusQuantidade(int quantidade) {
+        atualizarStatus(quantidade == 0 ? "Nenhum livro encontrado" : String.format("Quantidade de livros: %d", quantidade));
     }
 
-    private SwingWorker<DadosImportacaoCsvDto, Void> criarWorkerProcessamentoCsv(File arquivo) {
-        return new SwingWorker<DadosImportacaoCsvDto, Void>() {
+    private SwingWorker<ResultadoImportacaoDto, Void> criarWorkerProcessamentoCsv(File arquivo) {
+        return new SwingWorker<ResultadoImportacaoDto, Void>() {
             @Override
-            protected DadosImportacaoCsvDto doInBackground() {
-                DadosImportacaoCsvDto dadosImportacao = Optional.ofNullable(livroService.carregarDadosCSV(arquivo)).orElse(DadosImportacaoCsvDto.builder().build());
-                dadosImportacao.getLivrosImportados().forEach(livroService::salvar);
-                return dadosImportacao;
+            protected ResultadoImportacaoDto doInBackground() {
+                return livroService.importarCSV(arquivo);
             }
 
             @Override
             protected void done() {
                 desabilitarCarregamento();
 
-                DadosImportacaoCsvDto dadosImportacao;
+                ResultadoImportacaoDto dadosImportacao;
                 try {
-                    dadosImportacao = Optional.ofNullable(get()).orElse(DadosImportacaoCsvDto.builder().build());
+                    dadosImportacao = Optional.ofNullable(get()).orElse(ResultadoImportacaoDto.builder().build());
                 } catch (Exception e) {
                     log.error("Erro ao realizar importação", e);
                     DialogHelper.exibirErro(ListagemController.this, "Erro", "Ocorreu um erro ao realizar a importação. Verifique o log para mais detalhes");
@@ -134,13 +304,14 @@ public class ListagemController extends ListagemView {
                 }
 
                 String titulo = "Importação finalizada";
-                int qtdSucesso = dadosImportacao.getLivrosImportados().size();
+                int qtdSucesso = dadosImportacao.getQuantidadeImportados();
                 int qtdErro = dadosImportacao.getErros().size();
 
                 // apenas sucesso, sem erro
                 if (qtdSucesso > 0 && qtdErro == 0) {
                     sb.append("Livros importados com sucesso: ").append(qtdSucesso).append("\n");
                     sb.append("Importação ocorreu sem erros\n");
+                    sb.append(formatarTempoImportacao(dadosImportacao));
                     atualizarListaLivros();
                     DialogHelper.exibirAviso(ListagemController.this, titulo, sb.toString());
                     return;
@@ -157,7 +328,8 @@ public class ListagemController extends ListagemView {
 
                 // sucesso e erro
                 sb.append("Livros importados com sucesso: ").append(qtdSucesso).append("\n");
-                sb.append("Livros com erro de importação: ").append(qtdErro).append("\n\n");
+                sb.append("Livros com erro de importação: ").append(qtdErro).append("\n");
+                sb.append(formatarTempoImportacao(dadosImportacao)).append("\n");
                 sb.append("Erros:\n");
                 dadosImportacao.getErros().forEach(e -> sb.append("- ").append(e).append("\n"));
                 atualizarListaLivros();
@@ -166,41 +338,96 @@ public class ListagemController extends ListagemView {
         };
     }
 
-    private SwingWorker<List<LivroDto>, Void> criarWorkerConsultaLivro(String termo) {
-        return new SwingWorker<List<LivroDto>, Void>() {
+    private SwingWorker<ResultadoImportacaoDto, Void> criarWorkerCompletarDados() {
+        return new SwingWorker<ResultadoImportacaoDto, Void>() {
             @Override
-            protected List<LivroDto> doInBackground() {
-                if (isBlank(termo)) {
-                    log.info("Nenhum termo informado. Buscando todos os livros");
-                    return livroService.buscarTodos();
-                } else {
-                    log.info("Buscando livros pelo termo '{}'", termo);
-                    return livroService.buscarLivro(termo);
-                }
+            protected ResultadoImportacaoDto doInBackground() {
+                return livroService.completarDadosApi();
             }
 
             @Override
             protected void done() {
-                setResultadoFiltrado(isNotBlank(termo));
-                limparTabela();
                 desabilitarCarregamento();
 
-                List<LivroDto> livros;
+                ResultadoImportacaoDto resultado;
                 try {
-                    livros = get();
+                    resultado = get();
                 } catch (Exception e) {
-                    log.error("Erro ao buscar livros", e);
-                    DialogHelper.exibirErro(ListagemController.this, "Ocorreu um erro ao buscar livros");
+                    log.error("Erro ao completar dados dos livros", e);
+                    DialogHelper.exibirErro(ListagemController.this, "Erro", "Ocorreu um erro ao completar os dados dos livros. Verifique o log para mais detalhes");
+                    return;
+                }
+
+                StringBuilder sb = new StringBuilder();
+                sb.append("Livros atualizados: ").append(resultado.getQuantidadeImportados()).append("\n");
+                if (resultado.getQuantidadeImportados() > 0) {
+                    atualizarListaLivros();
+                }
+
+                if (resultado.getErros().isEmpty()) {
+                    DialogHelper.exibirAviso(ListagemController.this, "Dados completados", sb.toString());
+                    return;
+                }
+
+                sb.append("Erros:\n");
+                resultado.getErros().forEach(e -> sb.append("- ").append(e).append("\n"));
+                DialogHelper.exibirAlertaDetalhado(ListagemController.this, "Dados completados", sb.toString());
+            }
+        };
+    }
+
+    private String formatarTempoImportacao(ResultadoImportacaoDto dadosImportacao) {
+        return String.format("Tempo de importação: %.1f s (%.0f livros/s)\n", dadosImportacao.getTempoMillis() / 1000.0, dadosImportacao.getLivrosPorSegundo());
+    }
+
+    /**
+     * Busca os livros pelo termo, adicionando na tabela cada bloco de livros assim que é encontrado
+     */
+    private SwingWorker<Integer, List<LivroDto>> criarWorkerConsultaLivro(String termo, long idListagem, CancelamentoConsulta cancelamento) {
+        return new SwingWorker<Integer, List<LivroDto>>() {
+            private int quantidadeEncontrada;
+
+            @Override
+            protected Integer doInBackground() {
+                log.info("Buscando livros pelo termo '{}'", termo);
+                livroService.buscarLivro(termo, livros -> {
+                    quantidadeEncontrada += livros.size();
+                    publish(livros);
+                }, cancelamento);
+                return quantidadeEncontrada;
+            }
+
+            @Override
+            protected void process(List<List<LivroDto>> blocos) {
+                if (isCancelled() || idListagem != idListagemAtual) {
                     return;
                 }
 
-                if (livros.isEmpty()) {
-                    atualizarStatus("Nenhum livro encontrado");
+                List<LivroDto> livros = new ArrayList<>();
+                blocos.forEach(livros::addAll);
+                adicionarLivrosTabela(livros);
+                atualizarStatus(String.format("Buscando... %d livros encontrados", getQuantidadeLivrosTabela()));
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || idListagem != idListagemAtual) {
                     return;
                 }
 
-                livros.forEach(livro -> adicionarLivroTabela(livro));
-                atualizarStatus(String.format("Quantidade de livros: %d", livros.size()));
+                desabilitarCarregamento();
+
+                int quantidade;
+                try {
+                    quantidade = get();
+                } catch (Exception e) {
+                    log.error("Erro ao buscar livros", e);
+                    DialogHelper.exibirErro(ListagemController.this, "Ocorreu um erro ao buscar livros");
+                    return;
+                }
+
+                // os últimos blocos publicados podem ser adicionados na tabela logo após o done
+                atualizarStatusQuantidade(quantidade);
             }
         };
     }
@@ -230,4 +457,23 @@ public class ListagemController extends ListagemView {
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Retorna o intervalo, em milissegundos, sem digitação até o filtro ser aplicado, com base no parâmetro
+     * pesquisa.atrasoFiltro da JVM. Se for inválido ou não achar, usa {@value #ATRASO_FILTRO_PADRAO_MS}
+     */
+    private static int getAtrasoFiltro() {
+        String atraso = System.getProperty("pesquisa.atrasoFiltro");
+        if (isNull(atraso)) {
+            return ATRASO_FILTRO_PADRAO_MS;
+        }
+
+        try {
+            int valor = Integer.parseInt(atraso.trim());
+            return valor >= 0 ? valor : ATRASO_FILTRO_PADRAO_MS;
+        } catch (NumberFormatException e) {
+            log.warn("Intervalo do filtro inválido: '{}'. Será usado o padrão: {}", atraso, ATRASO_FILTRO_PADRAO_MS);
+            return ATRASO_FILTRO_PADRAO_MS;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.biblioteca.catalogo.ui.helper;
+
+import javax.swing.*;
+import java.util.function.Consumer;
+
+/**
+ * Adia a execução de uma pesquisa até que o termo pare de ser alterado por um intervalo (debounce), evitando uma
+ * pesquisa a cada tecla digitada.
+ * <br>
+ * Usa um {@link Timer} do Swing, então a pesquisa é executada na thread da interface. Deve ser usado apenas a partir
+ * da thread da interface.
+ */
+public class AgendadorPesquisa {
+
+    private final Timer timer;
+    private String termoAgendado;
+
+    /**
+     * @param atrasoMillis Tempo, em milissegundos, sem alterações no termo até a pesquisa ser executada
+     * @param pesquisa     Pesquisa a ser executada com o último termo agendado
+     */
+    public AgendadorPesquisa(int atrasoMillis, Consumer<String> pesquisa) {
+        this.timer = new Timer(atrasoMillis, e -> pesquisa.accept(termoAgendado));
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Agenda a pesquisa do termo, substituindo a pesquisa agendada anteriormente e reiniciando o intervalo
+     *
+     * @param termo Termo a ser pesquisado
+     */
+    public void agendar(String termo) {
+        termoAgendado = termo;
+        timer.restart();
+    }
+
+    /**
+     * Descarta a pesquisa agendada, caso ainda não tenha sido executada
+     */
+    public void cancelar() {
+        timer.stop();
+    }
+}
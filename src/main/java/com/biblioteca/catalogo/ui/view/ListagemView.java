@@ -1,6 +1,7 @@
 package com.biblioteca.catalogo.ui.view;
 
 import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.ui.components.FonteDadosLivros;
 import com.biblioteca.catalogo.ui.components.PainelPesquisa;
 import com.biblioteca.catalogo.ui.components.TabelaLivros;
 import com.biblioteca.catalogo.ui.helper.DialogHelper;
@@ -11,6 +12,7 @@ import com.jgoodies.forms.layout.FormLayout;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
+import java.util.List;
 
 import static com.biblioteca.catalogo.ui.factory.ButtonFactory.criarBotao;
 import static java.util.Objects.isNull;
@@ -25,6 +27,7 @@ public abstract class ListagemView extends JFrame {
     private JButton botaoEditar;
     private JButton botaoDeletar;
     private JButton botaoImportar;
+    private JButton botaoCompletarDados;
 
     private JLabel labelStatus;
     private JProgressBar progressBar;
@@ -46,6 +49,13 @@ public abstract class ListagemView extends JFrame {
      */
     protected abstract void pesquisarLivro(String termo);
 
+    /**
+     * Filtra os livros enquanto o termo de pesquisa é digitado
+     *
+     * @param termo Texto digitado no campo de pesquisa
+     */
+    protected abstract void filtrarLivros(String termo);
+
     /**
      * Abre a tela de cadastro de livro
      */
@@ -66,6 +76,11 @@ public abstract class ListagemView extends JFrame {
      */
     protected abstract void importarArquivo();
 
+    /**
+     * Completa os dados faltantes dos livros cadastrados pela Open Library
+     */
+    protected abstract void completarDados();
+
     /**
      * Atualiza a lista de livros (remove e busca novamente)
      */
@@ -114,6 +129,8 @@ public abstract class ListagemView extends JFrame {
         });
 
         botaoImportar = criarBotao("Importar Arquivo", e -> importarArquivo());
+        botaoCompletarDados = criarBotao("Completar Dados", e -> completarDados());
+        botaoCompletarDados.setToolTipText("Busca na Open Library a editora, data de publicação e autores dos livros que não os possuem");
 
         tabelaLivros.setOnSelecaoAlterada(livro -> {
             boolean possuiSelecao = nonNull(livro);
@@ -129,6 +146,7 @@ public abstract class ListagemView extends JFrame {
 
         painelPesquisa = new PainelPesquisa("Pesquisar Livros");
         painelPesquisa.setOnPesquisar(this::pesquisarLivro);
+        painelPesquisa.setOnDigitar(this::filtrarLivros);
         painelPesquisa.setOnLimpar(() -> {
             if (resultadoFiltrado) {
                 setResultadoFiltrado(false);
@@ -167,7 +185,7 @@ public abstract class ListagemView extends JFrame {
     }
 
     /**
-     * Cria o painel de ações (adicionar, editar, remover e importar livro).
+     * Cria o painel de ações (adicionar, editar, remover, importar livro e completar dados).
      *
      * @return Um {@link JPanel} com botões de ação.
      */
@@ -179,6 +197,7 @@ public abstract class ListagemView extends JFrame {
                 .add(botaoEditar).xy(3, 1)
                 .add(botaoDeletar).xy(5, 1)
                 .add(botaoImportar).xy(7, 1)
+                .add(botaoCompletarDados).xy(9, 1)
                 .build();
     }
 
@@ -206,6 +225,7 @@ public abstract class ListagemView extends JFrame {
         botaoEditar.setEnabled(habilitar && nonNull(tabelaLivros.getLivroSelecionado()));
         botaoDeletar.setEnabled(habilitar && nonNull(tabelaLivros.getLivroSelecionado()));
         botaoImportar.setEnabled(habilitar);
+        botaoCompletarDados.setEnabled(habilitar);
         painelPesquisa.setEnabled(habilitar);
     }
 
@@ -240,8 +260,36 @@ public abstract class ListagemView extends JFrame {
         labelStatus.setText(msg);
     }
 
-    protected void adicionarLivroTabela(LivroDto livroDto) {
-        tabelaLivros.adicionarRegistro(livroDto);
+    /**
+     * Exibe os livros de uma fonte na tabela, carregando apenas as linhas visíveis
+     *
+     * @param quantidade Quantidade total de livros da fonte
+     * @param fonte      Fonte dos livros
+     */
+    protected void exibirLivrosTabela(int quantidade, FonteDadosLivros fonte) {
+        tabelaLivros.setFonteDados(quantidade, fonte);
+    }
+
+    /**
+     * Exibe na tabela livros que já estão em memória
+     *
+     * @param livros Livros a serem exibidos
+     */
+    protected void exibirLivrosTabela(List<LivroDto> livros) {
+        tabelaLivros.substituirRegistros(livros);
+    }
+
+    /**
+     * Adiciona livros ao fim da tabela
+     *
+     * @param livros Livros a serem adicionados
+     */
+    protected void adicionarLivrosTabela(List<LivroDto> livros) {
+        tabelaLivros.adicionarRegistros(livros);
+    }
+
+    protected int getQuantidadeLivrosTabela() {
+        return tabelaLivros.getRowCount();
     }
 
     protected void limparTabela() {
@@ -252,6 +300,10 @@ public abstract class ListagemView extends JFrame {
         painelPesquisa.setText("");
     }
 
+    protected boolean isResultadoFiltrado() {
+        return resultadoFiltrado;
+    }
+
     protected void setResultadoFiltrado(boolean aplicouFiltro) {
         resultadoFiltrado = aplicouFiltro;
     }
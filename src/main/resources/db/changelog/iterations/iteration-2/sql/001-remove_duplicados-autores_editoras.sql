@@ -0,0 +1,70 @@
+-- O ID mantido para cada nome (o menor) é calculado uma única vez, em tabelas auxiliares indexadas, para que a
+-- unificação não consulte a tabela inteira a cada registro. Pelo mesmo motivo, os índices das chaves estrangeiras são
+-- criados antes das remoções: sem eles, o PostgreSQL percorre livro_autor e livros a cada autor ou editora removido
+CREATE INDEX idx_livro_autor_autor_id ON livro_autor (autor_id);
+CREATE INDEX idx_livros_editora_id ON livros (editora_id);
+
+-- Autores: os livros passam a apontar para o autor de menor ID com o mesmo nome, e os demais são removidos
+CREATE TABLE tmp_autores_mantidos AS
+SELECT UPPER(nome) AS nome_normalizado, MIN(autor_id) AS autor_id
+FROM autores
+GROUP BY UPPER(nome)
+HAVING COUNT(*) > 1;
+
+CREATE INDEX idx_tmp_autores_mantidos ON tmp_autores_mantidos (nome_normalizado);
+
+CREATE TABLE tmp_autores_duplicados AS
+SELECT a.autor_id AS duplicado_id, m.autor_id AS mantido_id
+FROM autores a
+JOIN tmp_autores_mantidos m ON m.nome_normalizado = UPPER(a.nome)
+WHERE a.autor_id <> m.autor_id;
+
+CREATE INDEX idx_tmp_autores_duplicados ON tmp_autores_duplicados (duplicado_id);
+
+INSERT INTO livro_autor (livro_id, autor_id)
+SELECT DISTINCT la.livro_id, d.mantido_id
+FROM livro_autor la
+JOIN tmp_autores_duplicados d ON d.duplicado_id = la.autor_id
+WHERE NOT EXISTS (
+    SELECT 1
+    FROM livro_autor x
+    WHERE x.livro_id = la.livro_id
+      AND x.autor_id = d.mantido_id
+);
+
+DELETE FROM autores
+WHERE autor_id IN (SELECT duplicado_id FROM tmp_autores_duplicados);
+
+DROP TABLE tmp_autores_duplicados;
+DROP TABLE tmp_autores_mantidos;
+
+-- Editoras: os livros passam a apontar para a editora de menor ID com o mesmo nome, e as demais são removidas
+CREATE TABLE tmp_editoras_mantidas AS
+SELECT UPPER(nome) AS nome_normalizado, MIN(editora_id) AS editora_id
+FROM editoras
+GROUP BY UPPER(nome)
+HAVING COUNT(*) > 1;
+
+CREATE INDEX idx_tmp_editoras_mantidas ON tmp_editoras_mantidas (nome_normalizado);
+
+CREATE TABLE tmp_editoras_duplicadas AS
+SELECT e.editora_id AS duplicada_id, m.editora_id AS mantida_id
+FROM editoras e
+JOIN tmp_editoras_mantidas m ON m.nome_normalizado = UPPER(e.nome)
+WHERE e.editora_id <> m.editora_id;
+
+CREATE INDEX idx_tmp_editoras_duplicadas ON tmp_editoras_duplicadas (duplicada_id);
+
+UPDATE livros
+SET editora_id = (
+    SELECT d.mantida_id
+    FROM tmp_editoras_duplicadas d
+    WHERE d.duplicada_id = livros.editora_id
+)
+WHERE editora_id IN (SELECT duplicada_id FROM tmp_editoras_duplicadas);
+
+DELETE FROM editoras
+WHERE editora_id IN (SELECT duplicada_id FROM tmp_editoras_duplicadas);
+
+DROP TABLE tmp_editoras_duplicadas;
+DROP TABLE tmp_editoras_mantidas;
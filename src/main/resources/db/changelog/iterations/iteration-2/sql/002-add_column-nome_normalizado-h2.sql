@@ -0,0 +1,8 @@
+ALTER TABLE autores ADD COLUMN nome_normalizado VARCHAR(255) GENERATED ALWAYS AS (UPPER(nome));
+ALTER TABLE editoras ADD COLUMN nome_normalizado VARCHAR(255) GENERATED ALWAYS AS (UPPER(nome));
+
+CREATE UNIQUE INDEX uk_autores_nome_normalizado ON autores (nome_normalizado);
+CREATE UNIQUE INDEX uk_editoras_nome_normalizado ON editoras (nome_normalizado);
+
+COMMENT ON COLUMN autores.nome_normalizado IS 'Nome do autor em maiúsculas, usado nas buscas por nome e para impedir autores duplicados.';
+COMMENT ON COLUMN editoras.nome_normalizado IS 'Nome da editora em maiúsculas, usado nas buscas por nome e para impedir editoras duplicadas.';
@@ -0,0 +1,6 @@
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init';
+CALL FT_INIT();
+
+CALL FT_CREATE_INDEX('PUBLIC', 'LIVROS', 'TITULO');
+CALL FT_CREATE_INDEX('PUBLIC', 'AUTORES', 'NOME');
+CALL FT_CREATE_INDEX('PUBLIC', 'EDITORAS', 'NOME');
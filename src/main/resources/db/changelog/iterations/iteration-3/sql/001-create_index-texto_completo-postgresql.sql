@@ -0,0 +1,66 @@
+ALTER TABLE livros ADD COLUMN busca TSVECTOR;
+
+-- Título com peso A, autores com peso B e editora com peso C, usados na ordenação por relevância (ts_rank_cd).
+-- O search_path da criação é mantido, pois as funções são executadas pelas triggers com o search_path da aplicação.
+CREATE OR REPLACE FUNCTION calcular_busca_livro(p_livro_id INT, p_titulo VARCHAR, p_editora_id INT) RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_titulo, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce((SELECT string_agg(a.nome, ' ')
+                                                      FROM livro_autor la
+                                                      JOIN autores a ON a.autor_id = la.autor_id
+                                                      WHERE la.livro_id = p_livro_id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce((SELECT e.nome FROM editoras e WHERE e.editora_id = p_editora_id), '')), 'C');
+$$ LANGUAGE sql STABLE SET search_path FROM CURRENT;
+
+CREATE OR REPLACE FUNCTION livros_atualizar_busca() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.busca := calcular_busca_livro(NEW.livro_id, NEW.titulo, NEW.editora_id);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql SET search_path FROM CURRENT;
+
+CREATE OR REPLACE FUNCTION livro_autor_atualizar_busca() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE livros SET busca = calcular_busca_livro(livro_id, titulo, editora_id) WHERE livro_id = NEW.livro_id;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE livros SET busca = calcular_busca_livro(livro_id, titulo, editora_id) WHERE livro_id = OLD.livro_id;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql SET search_path FROM CURRENT;
+
+CREATE OR REPLACE FUNCTION autores_atualizar_busca() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE livros l SET busca = calcular_busca_livro(l.livro_id, l.titulo, l.editora_id)
+    WHERE l.livro_id IN (SELECT la.livro_id FROM livro_autor la WHERE la.autor_id = NEW.autor_id);
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql SET search_path FROM CURRENT;
+
+CREATE OR REPLACE FUNCTION editoras_atualizar_busca() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE livros SET busca = calcular_busca_livro(livro_id, titulo, editora_id) WHERE editora_id = NEW.editora_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql SET search_path FROM CURRENT;
+
+UPDATE livros SET busca = calcular_busca_livro(livro_id, titulo, editora_id);
+
+CREATE INDEX idx_livros_busca ON livros USING GIN (busca);
+
+-- A trigger de livros só é disparada pelas colunas usadas na busca, então as atualizações feitas pelas demais
+-- triggers (apenas na coluna busca) não a disparam novamente.
+CREATE TRIGGER trg_livros_busca BEFORE INSERT OR UPDATE OF titulo, editora_id ON livros
+    FOR EACH ROW EXECUTE PROCEDURE livros_atualizar_busca();
+
+CREATE TRIGGER trg_livro_autor_busca AFTER INSERT OR UPDATE OR DELETE ON livro_autor
+    FOR EACH ROW EXECUTE PROCEDURE livro_autor_atualizar_busca();
+
+CREATE TRIGGER trg_autores_busca AFTER UPDATE OF nome ON autores
+    FOR EACH ROW WHEN (OLD.nome IS DISTINCT FROM NEW.nome) EXECUTE PROCEDURE autores_atualizar_busca();
+
+CREATE TRIGGER trg_editoras_busca AFTER UPDATE OF nome ON editoras
+    FOR EACH ROW WHEN (OLD.nome IS DISTINCT FROM NEW.nome) EXECUTE PROCEDURE editoras_atualizar_busca();
+
+COMMENT ON COLUMN livros.busca IS 'Título, autores e editora do livro indexados para a busca de texto completo. Mantida pelas triggers de livros, livro_autor, autores e editoras.';
@@ -0,0 +1,110 @@
+package com.biblioteca.catalogo.benchmark;
+
+import com.biblioteca.catalogo.csv.DecodificadorCampos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a conversão de ISBN e data de publicação feita pelo {@link DecodificadorCampos} com a conversão usada
+ * anteriormente na importação do CSV ({@link Long#parseLong(String)} e {@link LocalDate#parse} com captura de exceção).
+ * <br>
+ * Executar pelo método {@link #main(String[])} após compilar os testes ({@code mvn test-compile}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodificadorCamposBenchmark {
+
+    private static final int QUANTIDADE_CAMPOS = 1024;
+    private static final DateTimeFormatter FORMATADOR_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Percentual de campos inválidos, para medir também o custo do caminho de erro
+     */
+    @Param({"0", "10"})
+    private int percentualInvalidos;
+
+    private String[] isbns;
+    private String[] datas;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        isbns = new String[QUANTIDADE_CAMPOS];
+        datas = new String[QUANTIDADE_CAMPOS];
+
+        for (int i = 0; i < QUANTIDADE_CAMPOS; i++) {
+            boolean invalido = random.nextInt(100) < percentualInvalidos;
+            isbns[i] = invalido ? "978-85-333" : " 97885" + (1000000 + random.nextInt(9000000)) + "1 ";
+            datas[i] = invalido
+                    ? "2009-08-15"
+                    : String.format("%02d/%02d/%04d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1900 + random.nextInt(125));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_CAMPOS)
+    public void isbnParseLong(Blackhole blackhole) {
+        for (String isbn : isbns) {
+            try {
+                blackhole.consume(Long.parseLong(isbn.trim()));
+            } catch (NumberFormatException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_CAMPOS)
+    public void isbnDecodificador(Blackhole blackhole) {
+        for (String isbn : isbns) {
+            blackhole.consume(DecodificadorCampos.decodificarIsbn(isbn, 0, isbn.length(), false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_CAMPOS)
+    public void isbnDecodificadorComDigitoVerificador(Blackhole blackhole) {
+        for (String isbn : isbns) {
+            blackhole.consume(DecodificadorCampos.decodificarIsbn(isbn, 0, isbn.length(), true));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_CAMPOS)
+    public void dataDateTimeFormatter(Blackhole blackhole) {
+        for (String data : datas) {
+            try {
+                blackhole.consume(LocalDate.parse(data, FORMATADOR_DATA));
+            } catch (DateTimeParseException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_CAMPOS)
+    public void dataDecodificador(Blackhole blackhole) {
+        for (String data : datas) {
+            blackhole.consume(DecodificadorCampos.decodificarData(data, 0, data.length()));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DecodificadorCamposBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,216 @@
+package com.biblioteca.catalogo.benchmark;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a latência das buscas por nome, da busca textual por {@code LIKE} e da exclusão de um livro (com a verificação
+ * de registros órfãos feita em LivroService.deletarLivro) antes e depois dos índices da iteration-2, em um banco H2 em
+ * memória.
+ * <br>
+ * O banco é criado pelo Liquibase apenas com a iteration-1 ({@code antes}) ou com todas as iterações ({@code depois}),
+ * e preenchido com {@link #quantidadeLivros} livros. As exclusões são desfeitas ao fim de cada execução, mantendo os
+ * mesmos dados durante todo o benchmark.
+ * <br>
+ * Executar pelo método {@link #main(String[])} após compilar os testes ({@code mvn test-compile}). Para um teste mais
+ * rápido, a quantidade de livros pode ser alterada com o parâmetro {@code -p quantidadeLivros=100000} do JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndicesBancoBenchmark {
+
+    private static final int TAMANHO_BATCH = 10_000;
+
+    @Param({"antes", "depois"})
+    private String indices;
+
+    @Param({"1000000"})
+    private int quantidadeLivros;
+
+    private Connection conexao;
+    private PreparedStatement buscaAutor;
+    private PreparedStatement buscaEditora;
+    private PreparedStatement buscaTextoGeral;
+    private PreparedStatement exclusaoLivro;
+    private PreparedStatement editoraEmUso;
+    private PreparedStatement autorEmUso;
+
+    private int quantidadeAutores;
+    private int quantidadeEditoras;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:benchmark_" + indices + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        String changelog = "antes".equals(indices)
+                ? "db/changelog/iterations/iteration-1/changelog.yml"
+                : "db/changelog/master.yml";
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(conexao));
+        new Liquibase(changelog, new ClassLoaderResourceAccessor(), database).update(new Contexts(), new LabelExpression());
+
+        conexao.setAutoCommit(false);
+        quantidadeAutores = Math.max(1, quantidadeLivros / 5);
+        quantidadeEditoras = Math.max(1, quantidadeLivros / 100);
+        popular();
+
+        boolean comIndices = "depois".equals(indices);
+        buscaAutor = conexao.prepareStatement(comIndices
+                ? "SELECT autor_id FROM autores WHERE nome_normalizado = UPPER(?)"
+                : "SELECT autor_id FROM autores WHERE nome = ?");
+        buscaEditora = conexao.prepareStatement(comIndices
+                ? "SELECT editora_id FROM editoras WHERE nome_normalizado = UPPER(?)"
+                : "SELECT editora_id FROM editoras WHERE nome = ?");
+        buscaTextoGeral = conexao.prepareStatement("SELECT l.livro_id FROM livros l "
+                + " WHERE l.titulo LIKE ? "
+                + " OR l.editora_id IN (SELECT e.editora_id FROM editoras e WHERE e.nome LIKE ?) "
+                + " OR l.livro_id IN (SELECT la.livro_id FROM livro_autor la JOIN autores a ON a.autor_id = la.autor_id WHERE a.nome LIKE ?) "
+                + " ORDER BY l.livro_id");
+        exclusaoLivro = conexao.prepareStatement("DELETE FROM livros WHERE livro_id = ?");
+        editoraEmUso = conexao.prepareStatement("SELECT count(*) FROM livros WHERE editora_id = ?");
+        autorEmUso = conexao.prepareStatement("SELECT count(*) FROM livro_autor WHERE autor_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void finalizar() throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        conexao.close();
+    }
+
+    @Benchmark
+    public void buscarAutorPorNome(Blackhole blackhole) throws SQLException {
+        buscaAutor.setString(1, "AUTOR " + ThreadLocalRandom.current().nextInt(quantidadeAutores));
+        consumir(buscaAutor, blackhole);
+    }
+
+    @Benchmark
+    public void buscarEditoraPorNome(Blackhole blackhole) throws SQLException {
+        buscaEditora.setString(1, "EDITORA " + ThreadLocalRandom.current().nextInt(quantidadeEditoras));
+        consumir(buscaEditora, blackhole);
+    }
+
+    /**
+     * Mesmo comando da busca por LIKE de LivroDAO.buscarTextoGeral, usada quando a busca de texto completo não encontra
+     * nada. Como o termo pode estar em qualquer trecho do texto, nenhum índice é usado
+     */
+    @Benchmark
+    public void buscarTextoGeral(Blackhole blackhole) throws SQLException {
+        String termo = "%LIVRO " + ThreadLocalRandom.current().nextInt(quantidadeLivros) + "%";
+        for (int i = 1; i <= 3; i++) {
+            buscaTextoGeral.setString(i, termo);
+        }
+        consumir(buscaTextoGeral, blackhole);
+    }
+
+    /**
+     * Mesmos comandos de LivroService.deletarLivro: exclui o livro e verifica se a editora e os autores ficaram órfãos
+     */
+    @Benchmark
+    public void deletarLivro(Blackhole blackhole) throws SQLException {
+        int livro = ThreadLocalRandom.current().nextInt(quantidadeLivros);
+
+        exclusaoLivro.setInt(1, livro + 1);
+        blackhole.consume(exclusaoLivro.executeUpdate());
+
+        editoraEmUso.setInt(1, livro % quantidadeEditoras + 1);
+        consumir(editoraEmUso, blackhole);
+
+        autorEmUso.setInt(1, livro % quantidadeAutores + 1);
+        consumir(autorEmUso, blackhole);
+        autorEmUso.setInt(1, (livro * 7) % quantidadeAutores + 1);
+        consumir(autorEmUso, blackhole);
+
+        conexao.rollback();
+    }
+
+    private void consumir(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultado = statement.executeQuery()) {
+            while (resultado.next()) {
+                blackhole.consume(resultado.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * Cadastra os livros, cada um com uma editora e dois autores. Os IDs gerados começam em 1 e seguem a ordem de
+     * inserção, então podem ser calculados a partir do índice de cada registro
+     */
+    private void popular() throws SQLException {
+        try (PreparedStatement editora = conexao.prepareStatement("INSERT INTO editoras (nome) VALUES (?)")) {
+            for (int i = 0; i < quantidadeEditoras; i++) {
+                editora.setString(1, "EDITORA " + i);
+                adicionarBatch(editora, i);
+            }
+            editora.executeBatch();
+        }
+
+        try (PreparedStatement autor = conexao.prepareStatement("INSERT INTO autores (nome) VALUES (?)")) {
+            for (int i = 0; i < quantidadeAutores; i++) {
+                autor.setString(1, "AUTOR " + i);
+                adicionarBatch(autor, i);
+            }
+            autor.executeBatch();
+        }
+
+        try (PreparedStatement livro = conexao.prepareStatement("INSERT INTO livros (titulo, isbn, editora_id) VALUES (?, ?, ?)");
+             PreparedStatement livroAutor = conexao.prepareStatement("INSERT INTO livro_autor (livro_id, autor_id) VALUES (?, ?)")) {
+            for (int i = 0; i < quantidadeLivros; i++) {
+                livro.setString(1, "LIVRO " + i);
+                livro.setLong(2, 9_780_000_000_000L + i);
+                livro.setInt(3, i % quantidadeEditoras + 1);
+                adicionarBatch(livro, i);
+            }
+            livro.executeBatch();
+
+            for (int i = 0; i < quantidadeLivros; i++) {
+                int primeiroAutor = i % quantidadeAutores + 1;
+                int segundoAutor = (i * 7) % quantidadeAutores + 1;
+
+                livroAutor.setInt(1, i + 1);
+                livroAutor.setInt(2, primeiroAutor);
+                adicionarBatch(livroAutor, i);
+
+                if (segundoAutor != primeiroAutor) {
+                    livroAutor.setInt(1, i + 1);
+                    livroAutor.setInt(2, segundoAutor);
+                    livroAutor.addBatch();
+                }
+            }
+            livroAutor.executeBatch();
+        }
+
+        conexao.commit();
+    }
+
+    private void adicionarBatch(PreparedStatement statement, int indice) throws SQLException {
+        statement.addBatch();
+        if ((indice + 1) % TAMANHO_BATCH == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndicesBancoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.biblioteca.catalogo.benchmark;
+
+import com.biblioteca.catalogo.database.config.DatabaseManager;
+import com.biblioteca.catalogo.database.dao.LivroDAO;
+import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.entity.Autor;
+import com.biblioteca.catalogo.entity.Editora;
+import com.biblioteca.catalogo.entity.Livro;
+import com.biblioteca.catalogo.mapper.LivroMapper;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compara a montagem de um bloco da listagem de livros carregando as entidades (como era feito até então: livros com a
+ * editora, autores em lote e conversão com {@link LivroMapper#entidadeParaDto(Livro)}) com a projeção direto em
+ * {@link LivroDto} feita por {@link LivroDAO#buscarPorIds(List)}.
+ * <br>
+ * Usa o banco H2 em memória do {@link DatabaseManager} (sem cache de segundo nível), preenchido com
+ * {@link #quantidadeLivros} livros, cada um com dois autores.
+ * <br>
+ * Executar pelo método {@link #main(String[])} após compilar os testes ({@code mvn test-compile}). A memória alocada
+ * por bloco é exibida com o profiler de GC do JMH (parâmetro {@code -prof gc}, coluna gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ListagemLivrosBenchmark {
+
+    @Param({"20000"})
+    private int quantidadeLivros;
+
+    @Param({"100", "500"})
+    private int tamanhoBloco;
+
+    private DatabaseManager databaseManager;
+    private LivroDAO livroDAO;
+    private long primeiroId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        databaseManager = DatabaseManager.getInstance();
+        databaseManager.inicializarBanco();
+        livroDAO = new LivroDAO();
+
+        List<Livro> livros = new ArrayList<>(quantidadeLivros);
+        for (int i = 0; i < quantidadeLivros; i++) {
+            livros.add(Livro.builder()
+                    .titulo("Livro " + i)
+                    .isbn(9_780_000_000_000L + i)
+                    .editora(Editora.builder().nome("Editora " + i % 100).build())
+                    .autores(Arrays.asList(
+                            Autor.builder().nome("Autor " + i % 5000).build(),
+                            Autor.builder().nome("Autor " + (i * 7) % 5000 + 1).build()))
+                    .build());
+        }
+        primeiroId = livroDAO.salvarLote(livros).get(0);
+    }
+
+    @Benchmark
+    public List<LivroDto> carregarEntidades() {
+        String jpql = "SELECT l FROM Livro l LEFT JOIN FETCH l.editora WHERE l.livroId IN ?1";
+
+        EntityManager em = databaseManager.getEntityManager();
+        try {
+            List<Livro> livros = em.createQuery(jpql, Livro.class)
+                    .setParameter(1, sortearBloco())
+                    .getResultList();
+            livros.forEach(livro -> Hibernate.initialize(livro.getAutores()));
+
+            return livros.stream()
+                    .map(LivroMapper::entidadeParaDto)
+                    .collect(Collectors.toList());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<LivroDto> projetarDto() {
+        return livroDAO.buscarPorIds(sortearBloco());
+    }
+
+    private List<Long> sortearBloco() {
+        long inicio = primeiroId + ThreadLocalRandom.current().nextInt(quantidadeLivros - tamanhoBloco);
+        return LongStream.range(inicio, inicio + tamanhoBloco)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListagemLivrosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.biblioteca.catalogo.benchmark;
+
+import com.biblioteca.catalogo.dto.AutorDto;
+import com.biblioteca.catalogo.dto.EditoraDto;
+import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.ui.components.TableModelLivros;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a exibição do resultado da pesquisa na tabela de livros adicionando uma linha por vez em um
+ * {@link DefaultTableModel} (como era feito até então, com um evento por linha) com a substituição da lista inteira em
+ * {@link TableModelLivros#substituirLivros(List)}, que dispara um único evento.
+ * <br>
+ * Os modelos são ligados a uma {@link JTable}, para incluir o custo de tratamento dos eventos pela tabela. A pintura
+ * não é medida (o benchmark roda sem interface gráfica).
+ * <br>
+ * Executar pelo método {@link #main(String[])} após compilar os testes ({@code mvn test-compile}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class TabelaLivrosBenchmark {
+
+    private static final String[] COLUNAS = {"ID", "Título", "Autores", "Data Publicação", "ISBN", "Editora"};
+
+    @Param({"10000", "100000", "1000000"})
+    private int quantidadeLivros;
+
+    private List<LivroDto> livros;
+
+    private DefaultTableModel modeloPorLinha;
+    private TableModelLivros modeloLivros;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        EditoraDto editora = EditoraDto.builder().editoraId(1L).nome("Editora").build();
+        List<AutorDto> autores = Collections.singletonList(AutorDto.builder().autorId(1L).nome("Autor").build());
+
+        livros = new ArrayList<>(quantidadeLivros);
+        for (int i = 0; i < quantidadeLivros; i++) {
+            livros.add(LivroDto.builder()
+                    .livroId((long) i + 1)
+                    .titulo("Livro " + i)
+                    .autores(autores)
+                    .dataPublicacao(LocalDate.of(2000, 1, 1))
+                    .isbn(9_780_000_000_000L + i)
+                    .editora(editora)
+                    .build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepararTabelas() {
+        modeloPorLinha = new DefaultTableModel(COLUNAS, 0);
+        new JTable(modeloPorLinha);
+
+        modeloLivros = new TableModelLivros();
+        new JTable(modeloLivros);
+    }
+
+    @Benchmark
+    public int adicionarLinhaPorLinha() {
+        for (LivroDto livro : livros) {
+            modeloPorLinha.addRow(new Object[]{
+                    livro.getLivroId(),
+                    livro.getTitulo(),
+                    livro.getAutores(),
+                    livro.getDataPublicacao(),
+                    livro.getIsbn(),
+                    livro.getEditora()
+            });
+        }
+        return modeloPorLinha.getRowCount();
+    }
+
+    @Benchmark
+    public int substituirLivros() {
+        modeloLivros.substituirLivros(livros);
+        return modeloLivros.getRowCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TabelaLivrosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.biblioteca.catalogo.database.config;
+
+import com.biblioteca.catalogo.dto.MetricasCacheDto;
+import com.biblioteca.catalogo.entity.Editora;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Usa a unidade de persistência do banco em memória, com um banco próprio criado pelo Hibernate, para não depender do
+ * {@link DatabaseManager} (que mantém uma única conexão por execução dos testes).
+ */
+public class MetricasCacheTest {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void fecharBanco() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void quandoCacheHabilitado_deveContarAcertosEFalhasPorRegiao() {
+        // Arrange
+        criarBanco(true);
+        MetricasCache metricasCache = new MetricasCache(entityManagerFactory.unwrap(SessionFactory.class));
+
+        Editora editora = Editora.builder().nome("Editora Cache").build();
+        executar(em -> em.persist(editora));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            executar(em -> em.find(Editora.class, editora.getEditoraId()));
+        }
+        executar(em -> em.find(Editora.class, -1L));
+        List<MetricasCacheDto> metricas = metricasCache.getMetricas();
+
+        // Assert
+        assertTrue(metricasCache.isCacheHabilitado());
+
+        // a primeira busca e a do ID inexistente não encontram a editora no cache
+        MetricasCacheDto editoras = buscarRegiao(metricas, "editoras");
+        assertEquals(2, editoras.getAcertos());
+        assertEquals(2, editoras.getFalhas());
+        assertEquals(0.5, editoras.getTaxaAcerto(), 0.0001);
+    }
+
+    @Test
+    public void quandoConsultaCacheavelRepetida_deveUsarCacheDeConsultas() {
+        // Arrange
+        criarBanco(true);
+        MetricasCache metricasCache = new MetricasCache(entityManagerFactory.unwrap(SessionFactory.class));
+        executar(em -> em.persist(Editora.builder().nome("Editora Consulta").build()));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            executar(em -> em.createQuery("SELECT e FROM Editora e WHERE e.nome = ?1", Editora.class)
+                    .setParameter(1, "Editora Consulta")
+                    .setHint(QueryHints.CACHEABLE, true)
+                    .getResultList());
+        }
+
+        // Assert
+        MetricasCacheDto consultas = buscarRegiao(metricasCache.getMetricas(), "default-query-results-region");
+        assertEquals(2, consultas.getAcertos());
+        assertEquals(1, consultas.getFalhas());
+    }
+
+    @Test
+    public void quandoCacheDesabilitado_naoDeveRetornarMetricas() {
+        // Arrange
+        criarBanco(false);
+
+        // Act
+        MetricasCache metricasCache = new MetricasCache(entityManagerFactory.unwrap(SessionFactory.class));
+
+        // Assert
+        assertFalse(metricasCache.isCacheHabilitado());
+        assertTrue(metricasCache.getMetricas().isEmpty());
+        assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getStatistics().isStatisticsEnabled());
+    }
+
+    private void criarBanco(boolean cacheHabilitado) {
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put("javax.persistence.jdbc.url", "jdbc:h2:mem:metricas_cache");
+        propriedades.put("hibernate.hbm2ddl.auto", "create-drop");
+        propriedades.put("hibernate.show_sql", "false");
+        propriedades.put("hibernate.cache.use_second_level_cache", String.valueOf(cacheHabilitado));
+        propriedades.put("hibernate.cache.use_query_cache", String.valueOf(cacheHabilitado));
+        entityManagerFactory = Persistence.createEntityManagerFactory("biblioteca-memoria", propriedades);
+    }
+
+    private void executar(Consumer<EntityManager> operacao) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            operacao.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private MetricasCacheDto buscarRegiao(List<MetricasCacheDto> metricas, String regiao) {
+        return metricas.stream()
+                .filter(metrica -> regiao.equals(metrica.getRegiao()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Região não encontrada: " + regiao));
+    }
+}
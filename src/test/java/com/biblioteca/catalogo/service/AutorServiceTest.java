@@ -0,0 +1,97 @@
+package com.biblioteca.catalogo.service;
+
+import com.biblioteca.catalogo.database.dao.AutorDAO;
+import com.biblioteca.catalogo.dto.AutorDto;
+import com.biblioteca.catalogo.entity.Autor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AutorServiceTest {
+
+    @Mock
+    private AutorDAO mockAutorDAO;
+
+    @InjectMocks
+    private AutorService autorService;
+
+    @Test
+    public void quandoBuscarOuCriarPorNome_forChamadoMaisDeUmaVez_deveConsultarBancoApenasUmaVez() {
+        // Arrange
+        Autor autor = Autor.builder().autorId(1L).nome("AUTOR 1").build();
+        when(mockAutorDAO.buscarPorNome("AUTOR 1")).thenReturn(Optional.of(autor));
+
+        // Act
+        AutorDto primeiro = autorService.buscarOuCriarPorNome("AUTOR 1");
+        AutorDto segundo = autorService.buscarOuCriarPorNome("AUTOR 1");
+
+        // Assert
+        assertEquals(Long.valueOf(1L), primeiro.getAutorId());
+        assertEquals(primeiro, segundo);
+        verify(mockAutorDAO, times(1)).buscarPorNome("AUTOR 1");
+        assertEquals(1, autorService.getCache().getAcertos());
+        assertEquals(1, autorService.getCache().getFalhas());
+    }
+
+    @Test
+    public void quandoBuscarOuCriarPorNome_criarAutor_deveAdicionarNoCache() {
+        // Arrange
+        when(mockAutorDAO.buscarPorNome("AUTOR 2")).thenReturn(Optional.empty());
+        when(mockAutorDAO.save(any(Autor.class))).thenReturn(Autor.builder().autorId(2L).nome("AUTOR 2").build());
+
+        // Act
+        autorService.buscarOuCriarPorNome("AUTOR 2");
+        AutorDto resultado = autorService.buscarOuCriarPorNome("AUTOR 2");
+
+        // Assert
+        assertEquals(Long.valueOf(2L), resultado.getAutorId());
+        verify(mockAutorDAO, times(1)).save(any(Autor.class));
+        verify(mockAutorDAO, times(1)).buscarPorNome("AUTOR 2");
+    }
+
+    @Test
+    public void quandoDeletarAutorPorID_deveRemoverDoCache() {
+        // Arrange
+        Autor autor = Autor.builder().autorId(3L).nome("AUTOR 3").build();
+        when(mockAutorDAO.buscarPorNome("AUTOR 3")).thenReturn(Optional.of(autor));
+        autorService.buscarOuCriarPorNome("AUTOR 3");
+
+        // Act
+        autorService.deletarAutorPorID(3L);
+        autorService.buscarOuCriarPorNome("AUTOR 3");
+
+        // Assert
+        verify(mockAutorDAO).deleteById(3L);
+        verify(mockAutorDAO, times(2)).buscarPorNome("AUTOR 3");
+        assertEquals(0, autorService.getCache().getAcertos());
+    }
+
+    @Test
+    public void quandoBuscarOuCriarPorNome_comMaiusculasEMinusculasDiferentes_deveManterNomeCadastrado() {
+        // Arrange
+        when(mockAutorDAO.buscarPorNome("ANA")).thenReturn(Optional.empty());
+        when(mockAutorDAO.save(any(Autor.class))).thenReturn(Autor.builder().autorId(4L).nome("ANA").build());
+
+        // Act
+        autorService.buscarOuCriarPorNome("ANA");
+        AutorDto primeiro = autorService.buscarOuCriarPorNome("ana");
+        AutorDto segundo = autorService.buscarOuCriarPorNome("ana");
+
+        // Assert
+        // o autor retornado é salvo junto com o livro, então outro nome renomearia o autor cadastrado
+        assertEquals(AutorDto.builder().autorId(4L).nome("ANA").build(), primeiro);
+        assertEquals(AutorDto.builder().autorId(4L).nome("ANA").build(), segundo);
+        verify(mockAutorDAO, times(1)).buscarPorNome(anyString());
+        verify(mockAutorDAO, times(1)).save(any(Autor.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.biblioteca.catalogo.service;
+
+import com.biblioteca.catalogo.database.dao.EditoraDAO;
+import com.biblioteca.catalogo.dto.EditoraDto;
+import com.biblioteca.catalogo.entity.Editora;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EditoraServiceTest {
+
+    @Mock
+    private EditoraDAO mockEditoraDAO;
+
+    @InjectMocks
+    private EditoraService editoraService;
+
+    @Test
+    public void quandoBuscarOuCriarPorNome_forChamadoMaisDeUmaVez_deveConsultarBancoApenasUmaVez() {
+        // Arrange
+        Editora editora = Editora.builder().editoraId(1L).nome("EDITORA 1").build();
+        when(mockEditoraDAO.buscarPorNome("EDITORA 1")).thenReturn(Optional.of(editora));
+
+        // Act
+        editoraService.buscarOuCriarPorNome("EDITORA 1");
+        EditoraDto resultado = editoraService.buscarOuCriarPorNome("EDITORA 1");
+
+        // Assert
+        assertEquals(Long.valueOf(1L), resultado.getEditoraId());
+        assertEquals("EDITORA 1", resultado.getNome());
+        verify(mockEditoraDAO, times(1)).buscarPorNome("EDITORA 1");
+        assertEquals(1, editoraService.getCache().getAcertos());
+    }
+
+    @Test
+    public void quandoDeletarEditoraPorID_deveRemoverDoCache() {
+        // Arrange
+        Editora editora = Editora.builder().editoraId(2L).nome("EDITORA 2").build();
+        when(mockEditoraDAO.buscarPorNome("EDITORA 2")).thenReturn(Optional.of(editora));
+        editoraService.buscarOuCriarPorNome("EDITORA 2");
+
+        // Act
+        editoraService.deletarEditoraPorID(2L);
+        editoraService.buscarOuCriarPorNome("EDITORA 2");
+
+        // Assert
+        verify(mockEditoraDAO).deleteById(2L);
+        verify(mockEditoraDAO, times(2)).buscarPorNome("EDITORA 2");
+    }
+
+    @Test
+    public void quandoBuscarOuCriarPorNome_comMaiusculasEMinusculasDiferentes_deveManterNomeCadastrado() {
+        // Arrange
+        when(mockEditoraDAO.buscarPorNome("ROCCO")).thenReturn(Optional.empty());
+        when(mockEditoraDAO.save(any(Editora.class))).thenReturn(Editora.builder().editoraId(3L).nome("ROCCO").build());
+
+        // Act
+        editoraService.buscarOuCriarPorNome("ROCCO");
+        EditoraDto primeira = editoraService.buscarOuCriarPorNome("rocco");
+        EditoraDto segunda = editoraService.buscarOuCriarPorNome("rocco");
+
+        // Assert
+        // a editora retornada é salva junto com o livro, então outro nome renomearia a editora cadastrada
+        assertEquals("ROCCO", primeira.getNome());
+        assertEquals("ROCCO", segunda.getNome());
+        assertEquals(Long.valueOf(3L), segunda.getEditoraId());
+        verify(mockEditoraDAO, times(1)).buscarPorNome(anyString());
+        verify(mockEditoraDAO, times(1)).save(any(Editora.class));
+    }
+}
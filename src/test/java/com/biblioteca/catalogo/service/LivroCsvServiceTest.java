@@ -13,6 +13,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -218,6 +220,131 @@ public class LivroCsvServiceTest {
         assertEquals("AUTOR", livro.getAutores().get(0).getNome());
     }
 
+    @Test
+    public void quandoCsv_forProcessadoComConsumidores_deveRepassarLivrosEErrosNaOrdem() throws Exception {
+        // Arrange
+        File arquivo = tempFolder.newFile("teste.csv");
+        String conteudo = new StringBuilder()
+                .append("ISBN,Titulo,Editora,Data_Publicacao,Autor")
+                .append("\n")
+                .append("1111111111111,Livro 1,Editora 1,15/08/2009,Autor 1")
+                .append("\n")
+                .append("invalido,Livro 2,Editora 2,10/01/2017,Autor 2")
+                .append("\n")
+                .append("3333333333333,Livro 3,Editora 3,10/01/2017,Autor 3")
+                .toString();
+
+        escreverArquivo(arquivo, conteudo);
+
+        List<String> eventos = new ArrayList<>();
+
+        // Act
+        livroCsvService.processarCSV(arquivo,
+                livro -> eventos.add("livro: " + livro.getIsbn()),
+                erro -> eventos.add("erro: " + erro));
+
+        // Assert
+        assertEquals(3, eventos.size());
+        assertEquals("livro: 1111111111111", eventos.get(0));
+        assertTrue(eventos.get(1).startsWith("erro: Linha 3"));
+        assertEquals("livro: 3333333333333", eventos.get(2));
+    }
+
+    @Test
+    public void quandoCsv_possuirQuebraDeLinhaEntreAspas_deveManterNoMesmoRegistro() throws Exception {
+        // Arrange
+        File arquivo = tempFolder.newFile("teste.csv");
+        String conteudo = new StringBuilder()
+                .append("ISBN,Titulo,Editora,Data_Publicacao,Autor")
+                .append("\r\n")
+                .append("1111111111111,\"Livro 1,\nParte 2\",Editora 1,15/08/2009,Autor 1")
+                .append("\r\n")
+                .append("invalido,Livro 2,Editora 2,10/01/2017,Autor 2")
+                .toString();
+
+        escreverArquivo(arquivo, conteudo);
+
+        // Act
+        DadosImportacaoCsvDto resultado = livroCsvService.processarCSV(arquivo);
+
+        // Assert
+        assertEquals(1, resultado.getLivrosImportados().size());
+        assertEquals("LIVRO 1,\nPARTE 2", resultado.getLivrosImportados().get(0).getTitulo());
+        assertEquals(1, resultado.getErros().size());
+        assertTrue(resultado.getErros().get(0).startsWith("Linha 4"));
+    }
+
+    @Test
+    public void quandoCsv_forProcessadoEmParalelo_deveTerMesmoResultadoDaLeituraSequencial() throws Exception {
+        // Arrange
+        File arquivo = tempFolder.newFile("teste.csv");
+        StringBuilder conteudo = new StringBuilder("ISBN,Titulo,Editora,Data_Publicacao,Autor\n");
+        for (int i = 1; i <= 300; i++) {
+            if (i % 7 == 0) {
+                conteudo.append("invalido,Livro ").append(i).append(",Editora,10/01/2017,Autor\n");
+            } else if (i % 5 == 0) {
+                conteudo.append(i).append(",\"Livro ").append(i).append(",\n\"\"continuação\"\"\",Editora,10/01/2017,\"Autor 1;\nAutor 2\"\n");
+            } else {
+                conteudo.append(i).append(",Livro ").append(i).append(",Editora ").append(i % 3).append(",15/08/2009,Autor ").append(i).append("\n");
+            }
+
+            if (i % 50 == 0) {
+                conteudo.append("   \n");
+            }
+        }
+
+        escreverArquivo(arquivo, conteudo.toString());
+
+        DadosImportacaoCsvDto esperado = livroCsvService.processarCSV(arquivo);
+        DadosImportacaoCsvDto resultado = new DadosImportacaoCsvDto();
+
+        // Act
+        livroCsvService.processarCSVParalelo(arquivo, 256, resultado.getLivrosImportados()::add, resultado.getErros()::add);
+
+        // Assert
+        assertEquals(258, esperado.getLivrosImportados().size());
+        assertEquals(42, esperado.getErros().size());
+        assertTrue(esperado.getErros().get(0).startsWith("Linha 10:"));
+        assertEquals(esperado.getLivrosImportados(), resultado.getLivrosImportados());
+        assertEquals(esperado.getErros(), resultado.getErros());
+    }
+
+    @Test
+    public void quandoValidacaoIsbn_estiverAtiva_deveRejeitarDigitoVerificadorInvalido() throws Exception {
+        // Arrange
+        File arquivo = tempFolder.newFile("teste.csv");
+        String conteudo = new StringBuilder()
+                .append("ISBN,Titulo,Editora,Data_Publicacao,Autor")
+                .append("\n")
+                .append("9780306406157,Livro 1,Editora 1,15/08/2009,Autor 1") // ISBN-13 válido
+                .append("\n")
+                .append("0306406152,Livro 2,Editora 2,31/04/2017,Autor 2") // ISBN-10 válido
+                .append("\n")
+                .append("9780306406158,Livro 3,Editora 3,10/01/2017,Autor 3") // dígito verificador inválido
+                .toString();
+
+        escreverArquivo(arquivo, conteudo);
+
+        // Act
+        DadosImportacaoCsvDto resultado;
+        System.setProperty("importacao.validarIsbn", "true");
+        try {
+            resultado = livroCsvService.processarCSV(arquivo);
+        } finally {
+            System.clearProperty("importacao.validarIsbn");
+        }
+
+        // Assert
+        assertEquals(2, resultado.getLivrosImportados().size());
+        assertEquals(Long.valueOf(9780306406157L), resultado.getLivrosImportados().get(0).getIsbn());
+        assertEquals(Long.valueOf(306406152L), resultado.getLivrosImportados().get(1).getIsbn());
+        assertEquals(LocalDate.of(2017, 4, 30), resultado.getLivrosImportados().get(1).getDataPublicacao());
+
+        assertEquals(1, resultado.getErros().size());
+        assertTrue(resultado.getErros().get(0).startsWith("Linha 4"));
+        assertTrue(resultado.getErros().get(0).contains("dígito verificador inválido"));
+    }
+
     private void escreverArquivo(File arquivo, String conteudo) throws IOException {
         try (FileWriter writer = new FileWriter(arquivo)) {
             writer.write(conteudo);
@@ -0,0 +1,191 @@
+package com.biblioteca.catalogo.service;
+
+import com.biblioteca.catalogo.database.config.DatabaseManager;
+import com.biblioteca.catalogo.database.dao.CancelamentoConsulta;
+import com.biblioteca.catalogo.database.dao.LivroDAO;
+import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.entity.Autor;
+import com.biblioteca.catalogo.entity.Editora;
+import com.biblioteca.catalogo.entity.Livro;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifica a quantidade de comandos enviados ao banco pela busca de livros, usando o banco H2 em memória e as
+ * estatísticas do Hibernate. A quantidade não deve depender de quantos livros e autores foram encontrados. Na busca
+ * usada pela tela, que entrega os livros em blocos de 100, a quantidade por bloco é fixa.
+ */
+public class LivroServiceConsultasTest {
+
+    private static final int QUANTIDADE_LIVROS = 300;
+    private static final int AUTORES_POR_LIVRO = 3;
+    private static final long ISBN_INICIAL = 9_786_500_000_000L;
+
+    private static LivroService livroService;
+    private static Statistics estatisticas;
+
+    @BeforeClass
+    public static void prepararBanco() {
+        DatabaseManager databaseManager = DatabaseManager.getInstance();
+        databaseManager.inicializarBanco();
+
+        estatisticas = databaseManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+
+        LivroDAO livroDAO = new LivroDAO();
+        List<Livro> livros = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE_LIVROS; i++) {
+            List<Autor> autores = new ArrayList<>();
+            for (int j = 0; j < AUTORES_POR_LIVRO; j++) {
+                autores.add(Autor.builder().nome("Consultas Autor " + (i * AUTORES_POR_LIVRO + j)).build());
+            }
+
+            livros.add(Livro.builder()
+                    .titulo(i == 0 ? "Solaris" : "Nebulosa " + i)
+                    .isbn(ISBN_INICIAL + i)
+                    .editora(Editora.builder().nome("Consultas Editora " + (i % 5)).build())
+                    .autores(autores)
+                    .build());
+        }
+        livroDAO.salvarLote(livros);
+
+        livroService = new LivroService();
+    }
+
+    @Before
+    public void limparEstatisticas() {
+        estatisticas.clear();
+    }
+
+    @Test
+    public void quandoBuscarLivroPorTexto_deveBuscarIdsLivrosEAutoresComTresConsultas() {
+        // Act
+        List<LivroDto> resultado = livroService.buscarLivro("Nebulosa");
+
+        // Assert
+        assertEquals(QUANTIDADE_LIVROS - 1, resultado.size());
+        assertTrue(resultado.stream().allMatch(livro -> livro.getAutores().size() == AUTORES_POR_LIVRO));
+
+        // IDs pelo texto completo, livros com a editora e autores em lote
+        assertEquals(3, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroPorTexto_quantidadeConsultasNaoDeveDependerDaQuantidadeEncontrada() {
+        // Act
+        livroService.buscarLivro("Solaris");
+        long consultasUmLivro = estatisticas.getPrepareStatementCount();
+
+        estatisticas.clear();
+        livroService.buscarLivro("Nebulosa");
+        long consultasVariosLivros = estatisticas.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(consultasUmLivro, consultasVariosLivros);
+    }
+
+    @Test
+    public void quandoBuscarLivroPorIsbn_deveBuscarIdEIsbnNumaUnicaConsulta() {
+        // Act
+        List<LivroDto> resultado = livroService.buscarLivro(String.valueOf(ISBN_INICIAL));
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals("Solaris", resultado.get(0).getTitulo());
+        assertEquals(AUTORES_POR_LIVRO, resultado.get(0).getAutores().size());
+
+        // ID e ISBN, texto completo sem resultado, LIKE sem resultado, livros com a editora e autores em lote
+        assertEquals(5, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroPorParteDaPalavra_deveUsarQuantidadeFixaDeConsultas() {
+        // Act
+        List<LivroDto> resultado = livroService.buscarLivro("ebulos");
+
+        // Assert
+        assertEquals(QUANTIDADE_LIVROS - 1, resultado.size());
+
+        // texto completo sem resultado, IDs pelo LIKE, livros com a editora e autores em lote
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroPorTextoEmBlocos_deveBuscarIdsUmaVezELivrosEAutoresPorBloco() {
+        // Act
+        List<List<LivroDto>> blocos = buscarEmBlocos("Nebulosa");
+
+        // Assert
+        assertEquals(Arrays.asList(100, 100, QUANTIDADE_LIVROS - 201), blocos.stream()
+                .map(List::size)
+                .collect(Collectors.toList()));
+        assertTrue(blocos.stream()
+                .flatMap(List::stream)
+                .allMatch(livro -> livro.getAutores().size() == AUTORES_POR_LIVRO));
+
+        // IDs pelo texto completo, e livros com a editora e autores em lote para cada um dos 3 blocos
+        assertEquals(1 + 2 * 3, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroPorTextoEmBlocos_quantidadeConsultasPorBlocoNaoDeveDependerDaQuantidadeEncontrada() {
+        // Act
+        int blocosUmLivro = buscarEmBlocos("Solaris").size();
+        long consultasUmLivro = estatisticas.getPrepareStatementCount();
+
+        estatisticas.clear();
+        int blocosVariosLivros = buscarEmBlocos("Nebulosa").size();
+        long consultasVariosLivros = estatisticas.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(1, blocosUmLivro);
+        assertEquals(3, blocosVariosLivros);
+
+        // descontando a consulta dos IDs, que é feita uma única vez
+        assertEquals((consultasUmLivro - 1) * blocosVariosLivros, consultasVariosLivros - 1);
+    }
+
+    @Test
+    public void quandoBuscarLivroPorIsbnEmBlocos_deveBuscarIdEIsbnNumaUnicaConsulta() {
+        // Act
+        List<List<LivroDto>> blocos = buscarEmBlocos(String.valueOf(ISBN_INICIAL));
+
+        // Assert
+        assertEquals(1, blocos.size());
+        assertEquals(1, blocos.get(0).size());
+        assertEquals("Solaris", blocos.get(0).get(0).getTitulo());
+        assertEquals(AUTORES_POR_LIVRO, blocos.get(0).get(0).getAutores().size());
+
+        // ID e ISBN, livros com a editora e autores em lote, texto completo sem resultado e LIKE sem resultado
+        assertEquals(5, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroPorParteDaPalavraEmBlocos_deveUsarQuantidadeFixaDeConsultasPorBloco() {
+        // Act
+        List<List<LivroDto>> blocos = buscarEmBlocos("ebulos");
+
+        // Assert
+        assertEquals(QUANTIDADE_LIVROS - 1, blocos.stream().mapToInt(List::size).sum());
+
+        // texto completo sem resultado, IDs pelo LIKE, e livros com a editora e autores em lote para cada um dos 3 blocos
+        assertEquals(2 + 2 * 3, estatisticas.getPrepareStatementCount());
+    }
+
+    private List<List<LivroDto>> buscarEmBlocos(String termo) {
+        List<List<LivroDto>> blocos = new ArrayList<>();
+        livroService.buscarLivro(termo, blocos::add, new CancelamentoConsulta());
+        return blocos;
+    }
+}
@@ -1,26 +1,43 @@
 package com.biblioteca.catalogo.service;
 
+import com.biblioteca.catalogo.database.dao.CancelamentoConsulta;
 import com.biblioteca.catalogo.database.dao.LivroDAO;
+import com.biblioteca.catalogo.dto.ConfiguracaoOpenLibraryDto;
 import com.biblioteca.catalogo.dto.AutorDto;
 import com.biblioteca.catalogo.dto.DadosImportacaoCsvDto;
 import com.biblioteca.catalogo.dto.EditoraDto;
 import com.biblioteca.catalogo.dto.LivroDto;
+import com.biblioteca.catalogo.dto.PaginaDto;
+import com.biblioteca.catalogo.dto.ResultadoImportacaoDto;
 import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.DadosLivroResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.EditoraResponseDto;
 import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
 import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
 import com.biblioteca.catalogo.entity.Livro;
 import com.biblioteca.catalogo.exception.ApiExecutionException;
 import com.biblioteca.catalogo.exception.ConsultaLivroException;
 import com.biblioteca.catalogo.factory.LivroFactory;
+import com.biblioteca.catalogo.factory.OpenLibraryApiFactory;
+import com.biblioteca.catalogo.search.IndiceInvertido;
+import com.biblioteca.catalogo.search.IndiceIsbn;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.apache.commons.collections4.ListUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.File;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -50,6 +67,12 @@ public class LivroServiceTest {
     @Mock
     private OpenLibraryService mockOpenLibraryService;
 
+    @Spy
+    private IndiceInvertido indiceBusca = new IndiceInvertido();
+
+    @Spy
+    private IndiceIsbn indiceIsbn = new IndiceIsbn();
+
     @InjectMocks
     private LivroService livroService;
 
@@ -68,7 +91,7 @@ public class LivroServiceTest {
         LivroDto livroEsperado = new LivroDto();
 
         when(mockOpenLibraryService.buscarLivro(isbn)).thenReturn(livroResponse);
-        when(mockOpenLibraryService.buscarAutor(autorKey)).thenReturn(autorResponse);
+        when(mockOpenLibraryService.buscarAutorAsync(autorKey)).thenReturn(CompletableFuture.completedFuture(autorResponse));
         when(mockLivroFactory.montarLivroDto(eq(isbn), eq(livroResponse), any(List.class))).thenReturn(livroEsperado);
 
         // Act
@@ -78,7 +101,7 @@ public class LivroServiceTest {
         assertNotNull(resultado);
         assertEquals(livroEsperado, resultado);
         verify(mockOpenLibraryService).buscarLivro(isbn);
-        verify(mockOpenLibraryService).buscarAutor(autorKey);
+        verify(mockOpenLibraryService).buscarAutorAsync(autorKey);
         verify(mockLivroFactory).montarLivroDto(eq(isbn), eq(livroResponse), any(List.class));
     }
 
@@ -142,8 +165,10 @@ public class LivroServiceTest {
         LivroDto livroEsperado = new LivroDto();
 
         when(mockOpenLibraryService.buscarLivro(isbn)).thenReturn(livroResponse);
-        when(mockOpenLibraryService.buscarAutor(autorKey1)).thenReturn(autorResponse);
-        when(mockOpenLibraryService.buscarAutor(autorKey2)).thenThrow(new ApiExecutionException("Erro"));
+        CompletableFuture<AutorResponseDto> consultaComErro = new CompletableFuture<>();
+        consultaComErro.completeExceptionally(new ApiExecutionException("Erro"));
+        when(mockOpenLibraryService.buscarAutorAsync(autorKey1)).thenReturn(CompletableFuture.completedFuture(autorResponse));
+        when(mockOpenLibraryService.buscarAutorAsync(autorKey2)).thenReturn(consultaComErro);
         when(mockLivroFactory.montarLivroDto(eq(isbn), eq(livroResponse), any(List.class))).thenReturn(livroEsperado);
 
         // Act
@@ -152,11 +177,55 @@ public class LivroServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(mockOpenLibraryService).buscarLivro(isbn);
-        verify(mockOpenLibraryService).buscarAutor(autorKey1);
-        verify(mockOpenLibraryService).buscarAutor(autorKey2);
+        verify(mockOpenLibraryService).buscarAutorAsync(autorKey1);
+        verify(mockOpenLibraryService).buscarAutorAsync(autorKey2);
         verify(mockLivroFactory).montarLivroDto(eq(isbn), eq(livroResponse), any(List.class));
     }
 
+    @Test
+    public void quandoBuscarLivroApi_comVariosAutores_deveBuscarAutoresAoMesmoTempo() throws Exception {
+        // Arrange
+        String isbn = "1234567891234";
+        LivroResponseDto livroResponse = new LivroResponseDto();
+        List<KeyDto> autoresKeys = Arrays.asList(
+                KeyDto.builder().key("/authors/AU1").build(),
+                KeyDto.builder().key("/authors/AU2").build(),
+                KeyDto.builder().key("/authors/AU3").build());
+        livroResponse.setAuthors(autoresKeys);
+
+        // as consultas só terminam quando todas tiverem sido pedidas, o que não acontece se forem feitas uma por vez
+        List<CompletableFuture<AutorResponseDto>> consultas = new ArrayList<>();
+        when(mockOpenLibraryService.buscarLivro(isbn)).thenReturn(livroResponse);
+        when(mockOpenLibraryService.buscarAutorAsync(any())).thenAnswer(invocation -> {
+            CompletableFuture<AutorResponseDto> consulta = new CompletableFuture<>();
+            consultas.add(consulta);
+            if (consultas.size() == autoresKeys.size()) {
+                for (int i = 0; i < consultas.size(); i++) {
+                    AutorResponseDto autor = new AutorResponseDto();
+                    autor.setName(autoresKeys.get(i).getKey());
+                    consultas.get(i).complete(autor);
+                }
+            }
+            return consulta;
+        });
+        when(mockLivroFactory.montarLivroDto(eq(isbn), eq(livroResponse), any(List.class))).thenAnswer(invocation -> {
+            List<AutorResponseDto> autores = invocation.getArgument(2);
+            return LivroDto.builder()
+                    .autores(autores.stream()
+                            .map(autor -> AutorDto.builder().nome(autor.getName()).build())
+                            .collect(Collectors.toList()))
+                    .build();
+        });
+
+        // Act
+        LivroDto resultado = livroService.buscarLivroApi(isbn);
+
+        // Assert
+        assertEquals(Arrays.asList("/authors/AU1", "/authors/AU2", "/authors/AU3"), resultado.getAutores().stream()
+                .map(AutorDto::getNome)
+                .collect(Collectors.toList()));
+    }
+
     @Test
     public void quandoSalvarLivro_eExistirIsbn_deveFazerAtualizacao() {
         // Arrange
@@ -205,43 +274,6 @@ public class LivroServiceTest {
         verify(mockLivroCsvService).processarCSV(arquivo);
     }
 
-    @Test
-    public void quandoBuscarTodos_eExistirDados_deveRetornarListaPreenchida() {
-        // Arrange
-        Livro livro1 = Livro.builder()
-                .livroId(1L)
-                .build();
-        Livro livro2 = Livro.builder()
-                .livroId(2L)
-                .build();
-
-        List<Livro> livrosEntidade = Arrays.asList(livro1, livro2);
-
-        when(mockLivroDAO.buscarTodos()).thenReturn(livrosEntidade);
-
-        // Act
-        List<LivroDto> resultado = livroService.buscarTodos();
-
-        // Assert
-        assertNotNull(resultado);
-        assertEquals(2, resultado.size());
-        verify(mockLivroDAO).buscarTodos();
-    }
-
-    @Test
-    public void quandoBuscarTodos_eNaoExistirDados_deveRetornarListaVazia() {
-        // Arrange
-        when(mockLivroDAO.buscarTodos()).thenReturn(new ArrayList<>());
-
-        // Act
-        List<LivroDto> resultado = livroService.buscarTodos();
-
-        // Assert
-        assertNotNull(resultado);
-        assertTrue(resultado.isEmpty());
-        verify(mockLivroDAO).buscarTodos();
-    }
-
     @Test
     public void quandoDeletarLivro_comEditoraEAutorEmUso_naoDeveDeletarEditoraNemAutor() {
         // Arrange
@@ -331,12 +363,13 @@ public class LivroServiceTest {
     public void quandoBuscarLivro_porTermoNumerico_deveBuscarPorId() {
         // Arrange
         String termo = "123";
-        Livro livro = Livro.builder()
+        LivroDto livro = LivroDto.builder()
                 .livroId(123L)
                 .build();
 
-        when(mockLivroDAO.findById(123L)).thenReturn(Optional.of(livro));
-        when(mockLivroDAO.buscarTextoGeral(termo)).thenReturn(new ArrayList<>());
+        when(mockLivroDAO.buscarIdsPorIdOuIsbn(123L, null)).thenReturn(Collections.singletonList(123L));
+        when(mockLivroDAO.buscarIdsTextoGeral(termo)).thenReturn(new ArrayList<>());
+        when(mockLivroDAO.buscarPorIds(Collections.singletonList(123L))).thenReturn(Collections.singletonList(livro));
 
         // Act
         List<LivroDto> resultado = livroService.buscarLivro(termo);
@@ -344,21 +377,21 @@ public class LivroServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(mockLivroDAO).findById(123L);
-        verify(mockLivroDAO).buscarTextoGeral(termo);
+        verify(mockLivroDAO).buscarIdsPorIdOuIsbn(123L, null);
+        verify(mockLivroDAO).buscarIdsTextoGeral(termo);
     }
 
     @Test
     public void quandoBuscarLivro_porIsbn_deveBuscar() {
         // Arrange
         String termo = "1234567891234";
-        Livro livro = Livro.builder()
+        LivroDto livro = LivroDto.builder()
                 .livroId(1L)
                 .build();
 
-        when(mockLivroDAO.findById(1234567891234L)).thenReturn(Optional.empty());
-        when(mockLivroDAO.buscarPorIsbn(1234567891234L)).thenReturn(livro);
-        when(mockLivroDAO.buscarTextoGeral(termo)).thenReturn(new ArrayList<>());
+        when(mockLivroDAO.buscarIdsPorIdOuIsbn(1234567891234L, 1234567891234L)).thenReturn(Collections.singletonList(1L));
+        when(mockLivroDAO.buscarIdsTextoGeral(termo)).thenReturn(new ArrayList<>());
+        when(mockLivroDAO.buscarPorIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(livro));
 
         // Act
         List<LivroDto> resultado = livroService.buscarLivro(termo);
@@ -366,24 +399,25 @@ public class LivroServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(mockLivroDAO).buscarPorIsbn(1234567891234L);
-        verify(mockLivroDAO).buscarTextoGeral(termo);
+        verify(mockLivroDAO).buscarIdsPorIdOuIsbn(1234567891234L, 1234567891234L);
+        verify(mockLivroDAO).buscarIdsTextoGeral(termo);
     }
 
     @Test
     public void quandoBuscarLivro_porTexto_deveBuscarPorTexto() {
         // Arrange
         String termo = "Teste";
-        Livro livro1 = Livro.builder()
+        LivroDto livro1 = LivroDto.builder()
                 .livroId(1L)
                 .build();
 
-        Livro livro2 = Livro.builder()
+        LivroDto livro2 = LivroDto.builder()
                 .livroId(2L)
                 .build();
 
-        List<Livro> livrosEncontrados = Arrays.asList(livro1, livro2);
-        when(mockLivroDAO.buscarTextoGeral(termo)).thenReturn(livrosEncontrados);
+        when(mockLivroDAO.buscarIdsPorIdOuIsbn(null, null)).thenReturn(Collections.emptyList());
+        when(mockLivroDAO.buscarIdsTextoGeral(termo)).thenReturn(Arrays.asList(1L, 2L));
+        when(mockLivroDAO.buscarPorIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(livro1, livro2));
 
         // Act
         List<LivroDto> resultado = livroService.buscarLivro(termo);
@@ -391,22 +425,22 @@ public class LivroServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(2, resultado.size());
-        verify(mockLivroDAO).buscarTextoGeral(termo);
-        verify(mockLivroDAO, never()).findById(anyLong());
-        verify(mockLivroDAO, never()).buscarPorIsbn(anyLong());
+        verify(mockLivroDAO).buscarIdsTextoGeral(termo);
+        verify(mockLivroDAO).buscarIdsPorIdOuIsbn(null, null);
     }
 
     @Test
     public void quandoBuscarLivro_comMultiplosCriterios_deveTrazerSoUm() {
         // Arrange
         String termo = "123";
-        Livro livro = Livro.builder()
+        LivroDto livro = LivroDto.builder()
                 .livroId(123L)
                 .build();
 
         // Mesmo livro encontrado por ID e por busca de texto
-        when(mockLivroDAO.findById(123L)).thenReturn(Optional.of(livro));
-        when(mockLivroDAO.buscarTextoGeral(termo)).thenReturn(Collections.singletonList(livro));
+        when(mockLivroDAO.buscarIdsPorIdOuIsbn(123L, null)).thenReturn(Collections.singletonList(123L));
+        when(mockLivroDAO.buscarIdsTextoGeral(termo)).thenReturn(Collections.singletonList(123L));
+        when(mockLivroDAO.buscarPorIds(Collections.singletonList(123L))).thenReturn(Collections.singletonList(livro));
 
         // Act
         List<LivroDto> resultado = livroService.buscarLivro(termo);
@@ -414,8 +448,521 @@ public class LivroServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(mockLivroDAO).findById(123L);
-        verify(mockLivroDAO).buscarTextoGeral(termo);
+        verify(mockLivroDAO).buscarPorIds(Collections.singletonList(123L));
+        verify(mockLivroDAO).buscarIdsTextoGeral(termo);
+    }
+
+    @Test
+    public void quandoBuscarLivroEmBlocos_deveEntregarLivroDoIdPrimeiroSemRepetir() {
+        // Arrange
+        String termo = "123";
+        LivroDto livroId = LivroDto.builder().livroId(123L).build();
+        LivroDto livroTexto = LivroDto.builder().livroId(7L).build();
+
+        when(mockLivroDAO.buscarIdsPorIdOuIsbn(123L, null)).thenReturn(Collections.singletonList(123L));
+        when(mockLivroDAO.buscarPorIds(Collections.singletonList(123L))).thenReturn(Collections.singletonList(livroId));
+        doAnswer(invocation -> {
+            Consumer<List<LivroDto>> consumidor = invocation.getArgument(1);
+            consumidor.accept(Arrays.asList(livroTexto, livroId));
+            consumidor.accept(Collections.singletonList(livroId));
+            return null;
+        }).when(mockLivroDAO).buscarTextoGeral(eq(termo), any(), any());
+
+        List<List<LivroDto>> blocos = new ArrayList<>();
+
+        // Act
+        livroService.buscarLivro(termo, blocos::add, new CancelamentoConsulta());
+
+        // Assert
+        assertEquals(2, blocos.size());
+        assertEquals(Long.valueOf(123L), blocos.get(0).get(0).getLivroId());
+        assertEquals(1, blocos.get(1).size());
+        assertEquals(Long.valueOf(7L), blocos.get(1).get(0).getLivroId());
+    }
+
+    @Test
+    public void quandoBuscarLivroEmBlocosCancelado_naoDeveBuscarNoBanco() {
+        // Arrange
+        CancelamentoConsulta cancelamento = new CancelamentoConsulta();
+        cancelamento.cancelar();
+
+        // Act
+        assertThrows(CancellationException.class,
+                () -> livroService.buscarLivro("Tolkien", bloco -> fail("Nenhum bloco deveria ser entregue"), cancelamento));
+
+        // Assert
+        verify(mockLivroDAO, never()).buscarTextoGeral(anyString(), any(), any());
+    }
+
+    @Test
+    public void quandoImportarLivros_deveSalvarEmLotes() {
+        // Arrange
+        DadosImportacaoCsvDto dadosImportacao = DadosImportacaoCsvDto.builder()
+                .livrosImportados(Arrays.asList(criarLivroImportacao(1L), criarLivroImportacao(2L), criarLivroImportacao(3L)))
+                .erros(new ArrayList<>(Collections.singletonList("Linha 4: erro")))
+                .build();
+
+        when(mockLivroDAO.salvarLote(anyList()))
+                .thenReturn(Arrays.asList(10L, 20L))
+                .thenReturn(Collections.singletonList(30L));
+
+        // Act
+        ResultadoImportacaoDto resultado = livroService.importarLivros(dadosImportacao, 2);
+
+        // Assert
+        assertEquals(3, resultado.getQuantidadeImportados());
+        assertEquals(1, resultado.getErros().size());
+        assertEquals(4, resultado.getTotalLinhas());
+        assertEquals(Long.valueOf(10L), dadosImportacao.getLivrosImportados().get(0).getLivroId());
+        assertEquals(Long.valueOf(30L), dadosImportacao.getLivrosImportados().get(2).getLivroId());
+        verify(mockLivroDAO, times(2)).salvarLote(anyList());
+        verify(mockLivroDAO, never()).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void quandoImportarLivros_eLoteFalhar_deveSalvarIndividualmente() {
+        // Arrange
+        LivroDto livroValido = criarLivroImportacao(1L);
+        LivroDto livroInvalido = criarLivroImportacao(2L);
+        DadosImportacaoCsvDto dadosImportacao = DadosImportacaoCsvDto.builder()
+                .livrosImportados(Arrays.asList(livroValido, livroInvalido))
+                .build();
+
+        when(mockLivroDAO.salvarLote(anyList())).thenThrow(new RuntimeException("Erro no lote"));
+        when(mockLivroDAO.buscarIdExistentePorISBN(anyLong())).thenReturn(Optional.empty());
+        when(mockEditoraService.buscarOuCriarPorNome(anyString())).thenReturn(EditoraDto.builder().build());
+        when(mockLivroDAO.save(any()))
+                .thenReturn(new Livro())
+                .thenThrow(new RuntimeException("Erro ao salvar"));
+
+        // Act
+        ResultadoImportacaoDto resultado = livroService.importarLivros(dadosImportacao, 10);
+
+        // Assert
+        assertEquals(1, resultado.getQuantidadeImportados());
+        assertEquals(1, resultado.getErros().size());
+        assertTrue(resultado.getErros().get(0).contains("ISBN 2"));
+        verify(mockLivroDAO, times(2)).save(any());
+    }
+
+    @Test
+    public void quandoImportarCsv_deveSalvarLotesDuranteLeitura() {
+        // Arrange
+        File arquivo = new File("teste.csv");
+
+        doAnswer(invocation -> {
+            Consumer<LivroDto> aoLerLivro = invocation.getArgument(1);
+            Consumer<String> aoEncontrarErro = invocation.getArgument(2);
+            aoLerLivro.accept(criarLivroImportacao(1L));
+            aoLerLivro.accept(criarLivroImportacao(2L));
+            aoEncontrarErro.accept("Linha 3: erro");
+            aoLerLivro.accept(criarLivroImportacao(3L));
+            return null;
+        }).when(mockLivroCsvService).processarCSV(eq(arquivo), any(), any());
+
+        when(mockLivroDAO.salvarLote(anyList()))
+                .thenReturn(Arrays.asList(1L, 2L))
+                .thenReturn(Collections.singletonList(3L));
+
+        // Act
+        ResultadoImportacaoDto resultado = livroService.importarCSV(arquivo, 2);
+
+        // Assert
+        assertEquals(3, resultado.getQuantidadeImportados());
+        assertEquals(Collections.singletonList("Linha 3: erro"), resultado.getErros());
+        verify(mockLivroDAO, times(2)).salvarLote(anyList());
+        verify(mockLivroCsvService, never()).processarCSV(any(File.class));
+    }
+
+    @Test
+    public void quandoSalvarLivro_deveIndexarParaBuscaPorIndice() {
+        // Arrange
+        LivroDto livroDto = LivroDto.builder()
+                .titulo("Harry Potter e a Pedra Filosofal")
+                .editora(EditoraDto.builder()
+                        .nome("Rocco")
+                        .build())
+                .autores(Collections.singletonList(AutorDto.builder()
+                        .nome("José Rowling")
+                        .build()))
+                .build();
+
+        when(mockEditoraService.buscarOuCriarPorNome("Rocco")).thenReturn(livroDto.getEditora());
+        when(mockAutorService.buscarOuCriarPorNome("José Rowling")).thenReturn(livroDto.getAutores().get(0));
+        when(mockLivroDAO.save(any())).thenReturn(Livro.builder().livroId(10L).build());
+
+        // Act
+        livroService.salvar(livroDto);
+
+        // Assert
+        assertEquals(Long.valueOf(10L), livroDto.getLivroId());
+        assertEquals(Collections.singletonList(10L), livroService.buscarIdsPorIndice("pot har"));
+        assertEquals(Collections.singletonList(10L), livroService.buscarIdsPorIndice("jose ROC"));
+        assertEquals(Collections.singletonList(10L), livroService.buscarIdsPorIndice("filosof"));
+        assertTrue(livroService.buscarIdsPorIndice("potter tolkien").isEmpty());
+        verify(mockLivroDAO, never()).buscarIdsTextoGeral(anyString());
+    }
+
+    @Test
+    public void quandoDeletarLivro_deveRemoverDoIndice() {
+        // Arrange
+        LivroDto livroDto = LivroDto.builder()
+                .livroId(1L)
+                .titulo("Dom Casmurro")
+                .editora(EditoraDto.builder()
+                        .editoraId(1L)
+                        .build())
+                .build();
+
+        doAnswer(invocation -> {
+            BiConsumer<Long, List<String>> consumidor = invocation.getArgument(0);
+            consumidor.accept(1L, Arrays.asList("Dom Casmurro", null, "Machado de Assis"));
+            consumidor.accept(2L, Arrays.asList("Dom Quixote", "Editora", "Miguel de Cervantes"));
+            return null;
+        }).when(mockLivroDAO).percorrerTextosBusca(any());
+
+        when(mockLivroDAO.editoraEmUso(1L)).thenReturn(true);
+        livroService.carregarIndiceBusca();
+
+        // Act
+        livroService.deletarLivro(livroDto);
+
+        // Assert
+        assertTrue(livroService.isIndiceBuscaCarregado());
+        assertEquals(Collections.singletonList(2L), livroService.buscarIdsPorIndice("dom"));
+        assertTrue(livroService.buscarIdsPorIndice("machado").isEmpty());
+    }
+
+    @Test
+    public void quandoImportarLivros_deveIndexarLivrosSalvos() {
+        // Arrange
+        DadosImportacaoCsvDto dadosImportacao = DadosImportacaoCsvDto.builder()
+                .livrosImportados(Arrays.asList(criarLivroImportacao(1L), criarLivroImportacao(2L)))
+                .build();
+
+        when(mockLivroDAO.salvarLote(anyList())).thenReturn(Arrays.asList(5L, 6L));
+
+        // Act
+        livroService.importarLivros(dadosImportacao, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(5L, 6L), livroService.buscarIdsPorIndice("livro"));
+        assertEquals(Collections.singletonList(6L), livroService.buscarIdsPorIndice("livro 2"));
+    }
+
+    @Test
+    public void quandoSalvarLivro_comIndiceIsbnCarregado_naoDeveConsultarIsbnNoBanco() {
+        // Arrange
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumidor = invocation.getArgument(0);
+            consumidor.accept(1234567891234L, 123L);
+            return null;
+        }).when(mockLivroDAO).percorrerIsbns(any());
+
+        LivroDto livroExistente = criarLivroImportacao(1234567891234L);
+        LivroDto livroNovo = criarLivroImportacao(9876543210987L);
+
+        when(mockLivroDAO.save(any())).thenReturn(Livro.builder().livroId(123L).build(), Livro.builder().livroId(124L).build());
+        livroService.carregarIndiceIsbn();
+
+        // Act
+        livroService.salvar(livroExistente);
+        livroService.salvar(livroNovo);
+
+        // Assert
+        assertEquals(Long.valueOf(123L), livroExistente.getLivroId());
+        assertEquals(Long.valueOf(124L), livroNovo.getLivroId());
+        assertEquals(Long.valueOf(124L), livroService.buscarIdExistentePorISBN(9876543210987L));
+        verify(mockLivroDAO, never()).buscarIdExistentePorISBN(anyLong());
+    }
+
+    @Test
+    public void quandoSalvarLivro_comIsbnAlterado_deveRemoverIsbnAnteriorDoIndice() {
+        // Arrange
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumidor = invocation.getArgument(0);
+            consumidor.accept(1234567891234L, 123L);
+            return null;
+        }).when(mockLivroDAO).percorrerIsbns(any());
+
+        LivroDto livroDto = criarLivroImportacao(9876543210987L);
+        livroDto.setLivroId(123L);
+
+        when(mockLivroDAO.save(any())).thenReturn(Livro.builder().livroId(123L).build());
+        livroService.carregarIndiceIsbn();
+
+        // Act
+        livroService.salvar(livroDto);
+
+        // Assert
+        assertNull(livroService.buscarIdExistentePorISBN(1234567891234L));
+        assertEquals(Long.valueOf(123L), livroService.buscarIdExistentePorISBN(9876543210987L));
+    }
+
+    @Test
+    public void quandoSalvarLivro_eIsbnForaDoIndiceJaEstiverCadastrado_deveAtualizarLivroDoBanco() {
+        // Arrange
+        LivroDto livroDto = criarLivroImportacao(1234567891234L);
+
+        when(mockLivroDAO.save(any()))
+                .thenThrow(new RuntimeException("ISBN duplicado"))
+                .thenReturn(Livro.builder().livroId(123L).build());
+        when(mockLivroDAO.buscarIdExistentePorISBN(1234567891234L)).thenReturn(Optional.of(123L));
+        livroService.carregarIndiceIsbn();
+
+        // Act
+        livroService.salvar(livroDto);
+
+        // Assert
+        assertEquals(Long.valueOf(123L), livroDto.getLivroId());
+        assertEquals(Long.valueOf(123L), livroService.buscarIdExistentePorISBN(1234567891234L));
+        verify(mockLivroDAO, times(2)).save(any());
+    }
+
+    @Test
+    public void quandoDeletarLivro_deveRemoverIsbnDoIndice() {
+        // Arrange
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumidor = invocation.getArgument(0);
+            consumidor.accept(1234567891234L, 1L);
+            return null;
+        }).when(mockLivroDAO).percorrerIsbns(any());
+
+        LivroDto livroDto = LivroDto.builder()
+                .livroId(1L)
+                .isbn(1234567891234L)
+                .editora(EditoraDto.builder()
+                        .editoraId(1L)
+                        .build())
+                .build();
+
+        when(mockLivroDAO.editoraEmUso(1L)).thenReturn(true);
+        livroService.carregarIndiceIsbn();
+
+        // Act
+        livroService.deletarLivro(livroDto);
+
+        // Assert
+        assertNull(livroService.buscarIdExistentePorISBN(1234567891234L));
+        verify(mockLivroDAO, never()).buscarIdExistentePorISBN(anyLong());
+    }
+
+    @Test
+    public void quandoCompletarDadosApi_devePreencherApenasDadosFaltantes() throws Exception {
+        // Arrange
+        LivroDto semEditoraEAutores = LivroDto.builder()
+                .livroId(1L)
+                .isbn(1L)
+                .titulo("Título cadastrado")
+                .dataPublicacao(LocalDate.of(2001, 1, 1))
+                .build();
+        LivroDto semData = LivroDto.builder()
+                .livroId(2L)
+                .isbn(2L)
+                .titulo("Outro livro")
+                .editora(EditoraDto.builder().nome("Editora cadastrada").build())
+                .autores(Collections.singletonList(AutorDto.builder().nome("Autor cadastrado").build()))
+                .build();
+        LivroDto naoEncontrado = LivroDto.builder()
+                .livroId(3L)
+                .isbn(3L)
+                .titulo("Sem dados na API")
+                .build();
+
+        Map<Long, DadosLivroResponseDto> dados = new HashMap<>();
+        dados.put(1L, criarDadosApi("Título da API", "Editora da API", LocalDate.of(1999, 5, 5), "Autor A", "Autor B"));
+        dados.put(2L, criarDadosApi("Título da API", "Editora da API", LocalDate.of(2010, 3, 2), "Autor A"));
+
+        when(mockLivroDAO.buscarPaginaIncompletos(null, 100)).thenReturn(Arrays.asList(semEditoraEAutores, semData, naoEncontrado));
+        when(mockLivroDAO.buscarPaginaIncompletos(3L, 100)).thenReturn(Collections.emptyList());
+        when(mockOpenLibraryService.buscarLivros(Arrays.asList(1L, 2L, 3L))).thenReturn(dados);
+        when(mockLivroDAO.salvarLote(anyList())).thenReturn(Arrays.asList(1L, 2L));
+
+        // Act
+        ResultadoImportacaoDto resultado = livroService.completarDadosApi();
+
+        // Assert
+        assertEquals(2, resultado.getQuantidadeImportados());
+        assertTrue(resultado.getErros().isEmpty());
+
+        assertEquals("Título cadastrado", semEditoraEAutores.getTitulo());
+        assertEquals(LocalDate.of(2001, 1, 1), semEditoraEAutores.getDataPublicacao());
+        assertEquals("Editora da API", semEditoraEAutores.getEditora().getNome());
+        assertEquals(Arrays.asList("Autor A", "Autor B"), semEditoraEAutores.getAutores().stream()
+                .map(AutorDto::getNome)
+                .collect(Collectors.toList()));
+
+        assertEquals(LocalDate.of(2010, 3, 2), semData.getDataPublicacao());
+        assertEquals("Editora cadastrada", semData.getEditora().getNome());
+        assertEquals("Autor cadastrado", semData.getAutores().get(0).getNome());
+
+        verify(mockLivroDAO).salvarLote(argThat(livros -> livros.stream()
+                .map(Livro::getLivroId)
+                .collect(Collectors.toList())
+                .equals(Arrays.asList(1L, 2L))));
+        verify(mockAutorService, never()).buscarOuCriarPorNome(anyString());
+    }
+
+    @Test
+    public void quandoCompletarDadosApi_eConsultaFalhar_deveContinuarComProximoLote() throws Exception {
+        // Arrange
+        List<LivroDto> primeiroLote = Collections.singletonList(criarLivroImportacao(1L));
+        primeiroLote.get(0).setLivroId(1L);
+        List<LivroDto> segundoLote = Collections.singletonList(criarLivroImportacao(2L));
+        segundoLote.get(0).setLivroId(2L);
+
+        when(mockLivroDAO.buscarPaginaIncompletos(null, 100)).thenReturn(primeiroLote);
+        when(mockLivroDAO.buscarPaginaIncompletos(1L, 100)).thenReturn(segundoLote);
+        when(mockLivroDAO.buscarPaginaIncompletos(2L, 100)).thenReturn(Collections.emptyList());
+        when(mockOpenLibraryService.buscarLivros(Collections.singletonList(1L))).thenThrow(new ApiExecutionException("Erro"));
+        when(mockOpenLibraryService.buscarLivros(Collections.singletonList(2L)))
+                .thenReturn(Collections.singletonMap(2L, criarDadosApi(null, null, LocalDate.of(2020, 1, 1))));
+        when(mockLivroDAO.salvarLote(anyList())).thenReturn(Collections.singletonList(2L));
+
+        // Act
+        ResultadoImportacaoDto resultado = livroService.completarDadosApi();
+
+        // Assert
+        assertEquals(1, resultado.getQuantidadeImportados());
+        assertEquals(Collections.singletonList("Livros com ID de 1 a 1: não foi possível buscar os dados na Open Library"),
+                resultado.getErros());
+        assertEquals(LocalDate.of(2020, 1, 1), segundoLote.get(0).getDataPublicacao());
+        verify(mockLivroDAO, times(1)).salvarLote(anyList());
+    }
+
+    @Test
+    public void quandoCompletarDadosApi_eApiRetornarListasNulas_deveIgnorarEditoraEAutores() throws Exception {
+        // Arrange
+        LivroDto livro = LivroDto.builder()
+                .livroId(1L)
+                .isbn(1L)
+                .titulo("Título cadastrado")
+                .build();
+
+        when(mockLivroDAO.buscarPaginaIncompletos(null, 100)).thenReturn(Collections.singletonList(livro));
+        when(mockLivroDAO.buscarPaginaIncompletos(1L, 100)).thenReturn(Collections.emptyList());
+        when(mockLivroDAO.salvarLote(anyList())).thenReturn(Collections.singletonList(1L));
+
+        try (MockWebServer servidor = new MockWebServer()) {
+            servidor.enqueue(new MockResponse().setBody("{\"ISBN:0000000001\": {\"title\": \"Título da API\", "
+                    + "\"publishers\": null, \"authors\": null, \"publish_date\": \"May 5, 1999\"}}"));
+            servidor.start();
+
+            OpenLibraryService openLibraryService = new OpenLibraryService(OpenLibraryApiFactory.criar(
+                    servidor.url("/").toString(), null, ConfiguracaoOpenLibraryDto.builder().requisicoesPorMinuto(0).build()));
+            LivroService servico = new LivroService(mockLivroDAO, mockLivroFactory, mockAutorService, mockEditoraService,
+                    mockLivroCsvService, openLibraryService, indiceBusca, indiceIsbn);
+
+            // Act
+            ResultadoImportacaoDto resultado = servico.completarDadosApi();
+
+            // Assert
+            assertEquals(1, resultado.getQuantidadeImportados());
+            assertTrue(resultado.getErros().isEmpty());
+            assertEquals(LocalDate.of(1999, 5, 5), livro.getDataPublicacao());
+            assertNull(livro.getEditora());
+            assertTrue(livro.getAutores().isEmpty());
+        }
+    }
+
+    @Test
+    public void quandoBuscarPagina_eExistirProximaPagina_deveRetornarCursorDoUltimoLivro() {
+        // Arrange
+        when(mockLivroDAO.buscarPagina(10L, 3)).thenReturn(Arrays.asList(
+                LivroDto.builder().livroId(11L).build(),
+                LivroDto.builder().livroId(12L).build(),
+                LivroDto.builder().livroId(13L).build()));
+
+        // Act
+        PaginaDto<LivroDto> pagina = livroService.buscarPagina(10L, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(11L, 12L), pagina.getItens().stream().map(LivroDto::getLivroId).collect(Collectors.toList()));
+        assertEquals(Long.valueOf(12L), pagina.getProximoCursor());
+        assertFalse(pagina.isUltimaPagina());
+    }
+
+    @Test
+    public void quandoBuscarPagina_eForUltimaPagina_naoDeveRetornarCursor() {
+        // Arrange
+        when(mockLivroDAO.buscarPagina(null, 3)).thenReturn(Collections.singletonList(LivroDto.builder().livroId(1L).build()));
+
+        // Act
+        PaginaDto<LivroDto> pagina = livroService.buscarPagina(null, 2);
+
+        // Assert
+        assertEquals(1, pagina.getItens().size());
+        assertNull(pagina.getProximoCursor());
+        assertTrue(pagina.isUltimaPagina());
+    }
+
+    @Test
+    public void quandoBuscarPorIdsDoIndice_deveRetornarLivrosNaOrdemDosIds() {
+        // Arrange
+        doAnswer(invocation -> {
+            BiConsumer<Long, List<String>> consumidor = invocation.getArgument(0);
+            for (long id = 1; id <= 5; id++) {
+                consumidor.accept(id, Collections.singletonList("Livro " + id));
+            }
+            return null;
+        }).when(mockLivroDAO).percorrerTextosBusca(any());
+
+        when(mockLivroDAO.buscarPorIds(Arrays.asList(3L, 4L))).thenReturn(Arrays.asList(
+                LivroDto.builder().livroId(3L).build(),
+                LivroDto.builder().livroId(4L).build()));
+
+        livroService.carregarIndiceBusca();
+        List<Long> ids = livroService.buscarIdsPorIndice("livro");
+
+        // Act
+        List<LivroDto> livros = livroService.buscarPorIds(ids.subList(2, 4));
+
+        // Assert
+        assertEquals(5, ids.size());
+        assertEquals(2, livros.size());
+        assertEquals(Long.valueOf(3L), livros.get(0).getLivroId());
+        assertEquals(Long.valueOf(4L), livros.get(1).getLivroId());
+        verify(mockLivroDAO).buscarPorIds(Arrays.asList(3L, 4L));
+    }
+
+    @Test
+    public void quandoBuscarPaginaPorPosicao_deveBuscarAPartirDaPosicao() {
+        // Arrange
+        when(mockLivroDAO.buscarPaginaPorPosicao(200, 100)).thenReturn(Collections.singletonList(
+                LivroDto.builder().livroId(201L).build()));
+
+        // Act
+        List<LivroDto> livros = livroService.buscarPaginaPorPosicao(200, 100);
+
+        // Assert
+        assertEquals(1, livros.size());
+        assertEquals(Long.valueOf(201L), livros.get(0).getLivroId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void quandoBuscarPaginaPorPosicaoNegativa_deveLancarExcecao() {
+        // Act
+        livroService.buscarPaginaPorPosicao(-1, 100);
+    }
+
+    private DadosLivroResponseDto criarDadosApi(String titulo, String editora, LocalDate dataPublicacao, String... autores) {
+        return DadosLivroResponseDto.builder()
+                .title(titulo)
+                .publishers(editora == null ? Collections.emptyList() : Collections.singletonList(EditoraResponseDto.builder().name(editora).build()))
+                .publishDate(dataPublicacao)
+                .authors(Arrays.stream(autores)
+                        .map(nome -> AutorResponseDto.builder().name(nome).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private LivroDto criarLivroImportacao(Long isbn) {
+        return LivroDto.builder()
+                .isbn(isbn)
+                .titulo("Livro " + isbn)
+                .editora(EditoraDto.builder()
+                        .nome("Editora")
+                        .build())
+                .build();
+    }
+}
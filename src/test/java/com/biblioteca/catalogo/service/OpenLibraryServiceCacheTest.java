@@ -0,0 +1,153 @@
+package com.biblioteca.catalogo.service;
+
+import com.biblioteca.catalogo.dto.ConfiguracaoOpenLibraryDto;
+import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
+import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
+import com.biblioteca.catalogo.factory.OpenLibraryApiFactory;
+import okhttp3.Cache;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica o cache em disco das consultas à Open Library, usando um servidor HTTP local no lugar da API
+ */
+public class OpenLibraryServiceCacheTest {
+
+    private static final String ISBN = "9788532530783";
+    private static final String LIVRO_JSON = "{\"title\": \"Harry Potter e a Pedra Filosofal\"}";
+    private static final String AUTOR_JSON = "{\"name\": \"J. K. Rowling\"}";
+    private static final KeyDto AUTOR = KeyDto.builder()
+            .key("/authors/OL23919A")
+            .build();
+
+    @Rule
+    public TemporaryFolder pastaTemporaria = new TemporaryFolder();
+
+    private MockWebServer servidor;
+    private Cache cache;
+
+    @Before
+    public void iniciarServidor() throws IOException {
+        servidor = new MockWebServer();
+        servidor.start();
+        cache = new Cache(pastaTemporaria.newFolder("cache"), 1024 * 1024);
+    }
+
+    @After
+    public void encerrarServidor() throws IOException {
+        cache.close();
+        servidor.shutdown();
+    }
+
+    @Test
+    public void quandoBuscarLivroNovamente_comRespostaValida_naoDeveAcessarServidor() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "max-age=3600")
+                .setBody(LIVRO_JSON));
+        OpenLibraryService openLibraryService = criarServico(0, 0);
+
+        // Act
+        LivroResponseDto primeira = openLibraryService.buscarLivro(ISBN);
+        LivroResponseDto segunda = openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertEquals(primeira, segunda);
+        assertEquals(1, servidor.getRequestCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroNovamente_comRespostaExpiradaEETag_deveRevalidarSemBaixarNovamente() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "no-cache")
+                .setHeader("ETag", "\"v1\"")
+                .setBody(LIVRO_JSON));
+        servidor.enqueue(new MockResponse()
+                .setResponseCode(304));
+        OpenLibraryService openLibraryService = criarServico(0, 0);
+
+        // Act
+        openLibraryService.buscarLivro(ISBN);
+        LivroResponseDto resultado = openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertEquals("Harry Potter e a Pedra Filosofal", resultado.getTitle());
+        assertEquals(2, servidor.getRequestCount());
+        servidor.takeRequest(1, TimeUnit.SECONDS);
+        RecordedRequest revalidacao = servidor.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("\"v1\"", revalidacao.getHeader("If-None-Match"));
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroNovamente_semCacheControlESemValidadeFixa_deveAcessarServidor() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse().setBody(LIVRO_JSON));
+        servidor.enqueue(new MockResponse().setBody(LIVRO_JSON));
+        OpenLibraryService openLibraryService = criarServico(0, 0);
+
+        // Act
+        openLibraryService.buscarLivro(ISBN);
+        openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertEquals(2, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoBuscarAutorNovamente_comValidadeFixa_naoDeveAcessarServidor() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "no-cache")
+                .setBody(AUTOR_JSON));
+        OpenLibraryService openLibraryService = criarServico(0, TimeUnit.DAYS.toSeconds(30));
+
+        // Act
+        AutorResponseDto primeira = openLibraryService.buscarAutor(AUTOR);
+        AutorResponseDto segunda = openLibraryService.buscarAutor(AUTOR);
+
+        // Assert
+        assertEquals("J. K. Rowling", segunda.getName());
+        assertEquals(primeira, segunda);
+        assertEquals(1, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoBuscarLivroNaoEncontrado_comValidadeFixa_naoDeveGuardarNoCache() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse().setResponseCode(404));
+        servidor.enqueue(new MockResponse().setBody(LIVRO_JSON));
+
+        // Act
+        // instâncias diferentes, para não usar a lembrança de ISBNs não encontrados do serviço
+        LivroResponseDto primeira = criarServico(TimeUnit.DAYS.toSeconds(1), 0).buscarLivro(ISBN);
+        LivroResponseDto segunda = criarServico(TimeUnit.DAYS.toSeconds(1), 0).buscarLivro(ISBN);
+
+        // Assert
+        assertNull(primeira);
+        assertNotNull(segunda);
+        assertEquals(2, servidor.getRequestCount());
+    }
+
+    private OpenLibraryService criarServico(long validadeLivrosSegundos, long validadeAutoresSegundos) {
+        return new OpenLibraryService(OpenLibraryApiFactory.criar(servidor.url("/").toString(), cache,
+                ConfiguracaoOpenLibraryDto.builder()
+                        .validadeLivrosSegundos(validadeLivrosSegundos)
+                        .validadeAutoresSegundos(validadeAutoresSegundos)
+                        .build()));
+    }
+}
@@ -0,0 +1,213 @@
+package com.biblioteca.catalogo.service;
+
+import com.biblioteca.catalogo.dto.ConfiguracaoOpenLibraryDto;
+import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
+import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
+import com.biblioteca.catalogo.exception.ApiExecutionException;
+import com.biblioteca.catalogo.exception.CircuitoAbertoException;
+import com.biblioteca.catalogo.factory.OpenLibraryApiFactory;
+import okhttp3.Cache;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica o limite de requisições, as novas tentativas, os tempos limite e o circuito do cliente da Open Library,
+ * usando um servidor HTTP local que simula as falhas da API
+ */
+public class OpenLibraryServiceResilienciaTest {
+
+    private static final String ISBN = "9788532530783";
+    private static final String LIVRO_JSON = "{\"title\": \"Harry Potter e a Pedra Filosofal\"}";
+    private static final KeyDto AUTOR = KeyDto.builder()
+            .key("/authors/OL23919A")
+            .build();
+
+    @Rule
+    public TemporaryFolder pastaTemporaria = new TemporaryFolder();
+
+    private MockWebServer servidor;
+    private Cache cache;
+
+    @Before
+    public void iniciarServidor() throws IOException {
+        servidor = new MockWebServer();
+        servidor.start();
+        cache = new Cache(pastaTemporaria.newFolder("cache"), 1024 * 1024);
+    }
+
+    @After
+    public void encerrarServidor() throws IOException {
+        cache.close();
+        servidor.shutdown();
+    }
+
+    @Test
+    public void quandoServidorFalharTemporariamente_deveTentarNovamente() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        servidor.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        servidor.enqueue(new MockResponse().setBody(LIVRO_JSON));
+        OpenLibraryService openLibraryService = criarServico(configuracao().build());
+
+        // Act
+        LivroResponseDto resultado = openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertEquals("Harry Potter e a Pedra Filosofal", resultado.getTitle());
+        assertEquals(3, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoServidorContinuarFalhando_deveDesistirAposMaximoDeTentativas() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            servidor.enqueue(new MockResponse().setResponseCode(500));
+        }
+        OpenLibraryService openLibraryService = criarServico(configuracao().build());
+
+        // Act Assert
+        ApiExecutionException exception = assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarLivro(ISBN));
+        assertEquals("Consulta retornou código 500", exception.getMessage());
+        assertEquals(3, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoRespostaNaoIndicarFalhaTemporaria_naoDeveTentarNovamente() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse().setResponseCode(404));
+        OpenLibraryService openLibraryService = criarServico(configuracao().build());
+
+        // Act
+        LivroResponseDto resultado = openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertNull(resultado);
+        assertEquals(1, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoServidorDemorarParaResponder_deveFalharNoTempoLimiteDeLeitura() {
+        // Arrange
+        servidor.enqueue(new MockResponse()
+                .setBody(LIVRO_JSON)
+                .setHeadersDelay(2, TimeUnit.SECONDS));
+        OpenLibraryService openLibraryService = criarServico(configuracao()
+                .timeoutLeituraMs(200)
+                .build());
+
+        // Act
+        long inicio = System.nanoTime();
+        ApiExecutionException exception = assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarLivro(ISBN));
+        long tempoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Assert
+        assertEquals("Ocorreu um erro ao buscar dados do livro", exception.getMessage());
+        assertTrue("Demorou " + tempoMs + " ms", tempoMs < 1500);
+    }
+
+    @Test
+    public void quandoServidorFicarIndisponivel_deveAbrirCircuitoEFalharSemAcessarServidor() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        servidor.enqueue(new MockResponse().setBody(LIVRO_JSON));
+        OpenLibraryService openLibraryService = criarServico(configuracao()
+                .maximoRetentativas(0)
+                .falhasAbrirCircuito(2)
+                .tempoCircuitoAbertoMs(300)
+                .build());
+
+        assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarLivro(ISBN));
+        assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarAutor(AUTOR));
+
+        // Act
+        ApiExecutionException circuitoAberto = assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarLivro(ISBN));
+        int requisicoesComCircuitoAberto = servidor.getRequestCount();
+
+        Thread.sleep(400);
+        LivroResponseDto aposReabertura = openLibraryService.buscarLivro(ISBN);
+
+        // Assert
+        assertTrue(circuitoAberto.getCause() instanceof CircuitoAbertoException);
+        assertEquals(2, requisicoesComCircuitoAberto);
+        assertEquals("Harry Potter e a Pedra Filosofal", aposReabertura.getTitle());
+        assertEquals(3, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoCircuitoEstiverAberto_deveResponderComCache() throws Exception {
+        // Arrange
+        servidor.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "max-age=3600")
+                .setBody(LIVRO_JSON));
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        OpenLibraryService openLibraryService = criarServico(configuracao()
+                .maximoRetentativas(0)
+                .falhasAbrirCircuito(1)
+                .build());
+
+        openLibraryService.buscarLivro(ISBN);
+        assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarAutor(AUTOR));
+
+        // Act
+        LivroResponseDto resultado = openLibraryService.buscarLivro(ISBN);
+        ApiExecutionException autorSemCache = assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarAutor(AUTOR));
+
+        // Assert
+        assertEquals("Harry Potter e a Pedra Filosofal", resultado.getTitle());
+        assertTrue(autorSemCache.getCause() instanceof CircuitoAbertoException);
+        assertEquals(2, servidor.getRequestCount());
+    }
+
+    @Test
+    public void quandoExcederLimiteDeRequisicoes_deveAguardarAntesDeEnviar() throws Exception {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            servidor.enqueue(new MockResponse().setBody("{\"name\": \"Autor " + i + "\"}"));
+        }
+        OpenLibraryService openLibraryService = criarServico(configuracao()
+                .requisicoesPorMinuto(600)
+                .rajadaRequisicoes(2)
+                .build());
+
+        // Act
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            AutorResponseDto autor = openLibraryService.buscarAutor(KeyDto.builder().key("/authors/OL" + i + "A").build());
+            assertEquals("Autor " + i, autor.getName());
+        }
+        long tempoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Assert
+        // 10 requisições por segundo: as duas primeiras saem de imediato e as outras duas aguardam 100 ms cada
+        assertTrue("Demorou " + tempoMs + " ms", tempoMs >= 180);
+        assertEquals(4, servidor.getRequestCount());
+    }
+
+    /**
+     * Configuração com esperas curtas, sem validade fixa no cache e sem limite de requisições
+     */
+    private ConfiguracaoOpenLibraryDto.ConfiguracaoOpenLibraryDtoBuilder configuracao() {
+        return ConfiguracaoOpenLibraryDto.builder()
+                .validadeLivrosSegundos(0)
+                .validadeAutoresSegundos(0)
+                .requisicoesPorMinuto(0)
+                .esperaInicialRetentativaMs(10)
+                .esperaMaximaRetentativaMs(50);
+    }
+
+    private OpenLibraryService criarServico(ConfiguracaoOpenLibraryDto configuracao) {
+        return new OpenLibraryService(OpenLibraryApiFactory.criar(servidor.url("/").toString(), cache, configuracao));
+    }
+}
@@ -2,6 +2,7 @@ package com.biblioteca.catalogo.service;
 
 import com.biblioteca.catalogo.api.OpenLibraryApi;
 import com.biblioteca.catalogo.dto.openlibrary.AutorResponseDto;
+import com.biblioteca.catalogo.dto.openlibrary.DadosLivroResponseDto;
 import com.biblioteca.catalogo.dto.openlibrary.KeyDto;
 import com.biblioteca.catalogo.dto.openlibrary.LivroResponseDto;
 import com.biblioteca.catalogo.exception.ApiExecutionException;
@@ -16,9 +17,22 @@ import retrofit2.Call;
 import retrofit2.Response;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +48,9 @@ public class OpenLibraryServiceTest {
     @Mock
     private Call<AutorResponseDto> mockAutorCall;
 
+    @Mock
+    private Call<Map<String, DadosLivroResponseDto>> mockLivrosCall;
+
     @InjectMocks
     private OpenLibraryService openLibraryService;
 
@@ -74,6 +91,57 @@ public class OpenLibraryServiceTest {
         verify(mockLivroCall).execute();
     }
 
+    @Test
+    public void deveRetornarNullSemConsultarApi_quandoIsbn_jaNaoTiverSidoEncontrado() throws Exception {
+        // Arrange
+        String isbn = "9999999999999";
+        when(mockOpenLibraryApi.buscarLivro(isbn)).thenReturn(mockLivroCall);
+        when(mockLivroCall.execute()).thenReturn(criarResponseLivroErro(404));
+
+        // Act
+        LivroResponseDto primeira = openLibraryService.buscarLivro(isbn);
+        LivroResponseDto segunda = openLibraryService.buscarLivro(isbn);
+
+        // Assert
+        assertNull(primeira);
+        assertNull(segunda);
+        verify(mockOpenLibraryApi, times(1)).buscarLivro(isbn);
+    }
+
+    @Test
+    public void deveFazerUmaUnicaConsulta_quandoMesmoIsbn_forBuscadoAoMesmoTempo() throws Exception {
+        // Arrange
+        String isbn = "1234567891234";
+        LivroResponseDto livroEsperado = new LivroResponseDto();
+        CountDownLatch liberarResposta = new CountDownLatch(1);
+
+        when(mockOpenLibraryApi.buscarLivro(isbn)).thenReturn(mockLivroCall);
+        when(mockLivroCall.execute()).thenAnswer(invocation -> {
+            liberarResposta.await(5, TimeUnit.SECONDS);
+            return criarResponseLivroSucesso(livroEsperado);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // Act
+            List<Future<LivroResponseDto>> buscas = IntStream.range(0, 3)
+                    .mapToObj(i -> executor.submit(() -> openLibraryService.buscarLivro(isbn)))
+                    .collect(Collectors.toList());
+
+            // a resposta só é liberada depois que as três buscas estão aguardando
+            Thread.sleep(200);
+            liberarResposta.countDown();
+
+            // Assert
+            for (Future<LivroResponseDto> busca : buscas) {
+                assertEquals(livroEsperado, busca.get(5, TimeUnit.SECONDS));
+            }
+            verify(mockOpenLibraryApi, times(1)).buscarLivro(isbn);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void devePropagarExcecao_quandoOcorrerIoException_aoBuscarLivro() throws Exception {
         // Arrange
@@ -133,6 +201,36 @@ public class OpenLibraryServiceTest {
         verify(mockAutorCall).execute();
     }
 
+    @Test
+    public void deveBuscarAutoresAoMesmoTempo_quandoBuscarAutorAsync_comAutoresDiferentes() throws Exception {
+        // Arrange
+        List<String> idsAutores = Arrays.asList("AU1", "AU2", "AU3");
+
+        // cada consulta só termina quando todas tiverem começado, o que não acontece se forem feitas uma por vez
+        CountDownLatch consultasIniciadas = new CountDownLatch(idsAutores.size());
+        when(mockOpenLibraryApi.buscarAutor(anyString())).thenReturn(mockAutorCall);
+        when(mockAutorCall.execute()).thenAnswer(invocation -> {
+            consultasIniciadas.countDown();
+            if (!consultasIniciadas.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("Consultas feitas uma por vez");
+            }
+            return criarResponseAutorSucesso(new AutorResponseDto());
+        });
+
+        // Act
+        List<CompletableFuture<AutorResponseDto>> consultas = idsAutores.stream()
+                .map(id -> openLibraryService.buscarAutorAsync(KeyDto.builder().key("/authors/" + id).build()))
+                .collect(Collectors.toList());
+
+        // Assert
+        for (CompletableFuture<AutorResponseDto> consulta : consultas) {
+            assertNotNull(consulta.get(5, TimeUnit.SECONDS));
+        }
+        for (String id : idsAutores) {
+            verify(mockOpenLibraryApi).buscarAutor(id);
+        }
+    }
+
     @Test
     public void deveExtrairIdAutorCorretamente() throws Exception {
         // Arrange
@@ -208,6 +306,39 @@ public class OpenLibraryServiceTest {
         assertEquals("Autor não encontrado", exception.getMessage());
     }
 
+    @Test
+    public void deveBuscarLivrosNumaUnicaConsulta_peloIsbn() throws Exception {
+        // Arrange
+        DadosLivroResponseDto livro1 = DadosLivroResponseDto.builder().title("Livro 1").build();
+        DadosLivroResponseDto livro2 = DadosLivroResponseDto.builder().title("Livro 2").build();
+
+        Map<String, DadosLivroResponseDto> dados = new HashMap<>();
+        dados.put("ISBN:9788532530783", livro1);
+        dados.put("ISBN:0345391802", livro2);
+
+        when(mockOpenLibraryApi.buscarLivros("ISBN:9788532530783,ISBN:0345391802,ISBN:9780000000000")).thenReturn(mockLivrosCall);
+        when(mockLivrosCall.execute()).thenReturn(Response.success(dados));
+
+        // Act
+        Map<Long, DadosLivroResponseDto> resultado = openLibraryService.buscarLivros(Arrays.asList(9788532530783L, 345391802L, 9780000000000L));
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals(livro1, resultado.get(9788532530783L));
+        assertEquals(livro2, resultado.get(345391802L));
+    }
+
+    @Test
+    public void deveLancarExcecao_quandoConsultaDeLivros_naoForBemSucedida() throws Exception {
+        // Arrange
+        when(mockOpenLibraryApi.buscarLivros(anyString())).thenReturn(mockLivrosCall);
+        when(mockLivrosCall.execute()).thenReturn(Response.error(503, ResponseBody.create("", MediaType.parse(""))));
+
+        // Act Assert
+        ApiExecutionException exception = assertThrows(ApiExecutionException.class, () -> openLibraryService.buscarLivros(Arrays.asList(9788532530783L)));
+        assertEquals("Consulta retornou código 503", exception.getMessage());
+    }
+
     private Response<LivroResponseDto> criarResponseLivroSucesso(LivroResponseDto livro) {
         return Response.success(livro);
     }